@@ -0,0 +1,17 @@
+package com.sharelist.api.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+/**
+ * Punto de entrada de la variante reactiva de la API.
+ * Arranca sobre Netty (WebFlux) en lugar de Tomcat y accede a la base de datos con R2DBC,
+ * de modo que las conexiones inactivas no ocupan ningún hilo.
+ */
+@SpringBootApplication
+public class ShareListReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ShareListReactiveApplication.class, args);
+	}
+
+}
@@ -0,0 +1,107 @@
+package com.sharelist.api.reactive.config;
+
+import com.sharelist.api.reactive.security.CustomReactiveUserDetailsService;
+import com.sharelist.api.reactive.security.JwtAuthenticationWebFilter;
+import com.sharelist.api.reactive.security.JwtTokenProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatchers;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+/**
+ * Configuración de seguridad de la variante reactiva: mismas rutas públicas y protegidas que la principal,
+ * autenticación con JWT y BCrypt fuera del event loop.
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class SecurityConfig {
+
+    // Endpoints públicos: no requieren autenticación
+    private static final String[] PUBLIC_PATHS = {"/api/users/register", "/api/auth/login"};
+
+    // Coste de BCrypt (log2 de las rondas). Cada punto más duplica el tiempo de cifrado
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    // Hilos dedicados a BCrypt (por defecto, uno por núcleo)
+    @Value("${security.password.hashing.pool-size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int hashingPoolSize;
+
+    // Tareas de cifrado en espera antes de rechazar con 503
+    @Value("${security.password.hashing.queue-capacity:100}")
+    private int hashingQueueCapacity;
+
+    /**
+     * Cadena de filtros de seguridad: sin CSRF, sin formulario ni HTTP Basic, sin sesión
+     * (el token se verifica en cada petición) y 401 para las peticiones sin autenticar.
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtTokenProvider jwtTokenProvider) {
+        ServerWebExchangeMatcher publicPaths = ServerWebExchangeMatchers.pathMatchers(PUBLIC_PATHS);
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .authorizeExchange(exchanges -> exchanges
+                        .matchers(publicPaths).permitAll()
+                        .anyExchange().authenticated())
+                .addFilterAt(new JwtAuthenticationWebFilter(jwtTokenProvider, publicPaths),
+                        SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    /**
+     * Scheduler acotado para BCrypt: un número fijo de hilos y una cola limitada. El cifrado es trabajo de CPU
+     * y no puede ejecutarse en el event loop; si la cola se llena, la tarea se rechaza (503) en lugar de acumularse.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler passwordHashingScheduler() {
+        return Schedulers.newBoundedElastic(hashingPoolSize, hashingQueueCapacity, "password-hashing");
+    }
+
+    /**
+     * Codificador de contraseñas compatible con la variante principal (hashes {bcrypt} y antiguos sin prefijo).
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    /**
+     * AuthenticationManager reactivo: carga el usuario con R2DBC y comprueba la contraseña
+     * en el scheduler de cifrado.
+     */
+    @Bean
+    public ReactiveAuthenticationManager reactiveAuthenticationManager(CustomReactiveUserDetailsService userDetailsService,
+                                                                       PasswordEncoder passwordEncoder,
+                                                                       Scheduler passwordHashingScheduler) {
+        var authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setScheduler(passwordHashingScheduler);
+        return authenticationManager;
+    }
+}
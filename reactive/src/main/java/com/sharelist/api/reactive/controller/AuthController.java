@@ -0,0 +1,49 @@
+package com.sharelist.api.reactive.controller;
+
+import com.sharelist.api.reactive.dto.ErrorResponseDTO;
+import com.sharelist.api.reactive.dto.LoginRequestDTO;
+import com.sharelist.api.reactive.dto.LoginResponseDTO;
+import com.sharelist.api.reactive.security.JwtTokenProvider;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+/**
+ * Controlador de autenticación de la variante reactiva.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final JwtTokenProvider jwtTokenProvider;
+
+    /**
+     * Endpoint de inicio de sesión. Recibe las credenciales y devuelve un token JWT si son válidas.
+     * El usuario se carga con R2DBC y la contraseña se comprueba en el scheduler de cifrado:
+     * ningún hilo queda bloqueado mientras tanto.
+     *
+     * @param dto Objeto que contiene el username y password del usuario.
+     * @return Token JWT en caso de éxito o mensaje de error en caso de fallo.
+     */
+    @PostMapping("/login")
+    public Mono<ResponseEntity<?>> login(@Valid @RequestBody LoginRequestDTO dto) {
+        return authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(dto.getUsername(), dto.getPassword()))
+                .<ResponseEntity<?>>map(authentication -> ResponseEntity.ok(new LoginResponseDTO(
+                        jwtTokenProvider.createToken((UserDetails) authentication.getPrincipal()))))
+                // Si el usuario no existe
+                .onErrorResume(UsernameNotFoundException.class, e -> Mono.just(ResponseEntity.status(404)
+                        .body(new ErrorResponseDTO("Usuario no encontrado"))))
+                // Si las credenciales no son válidas o el usuario está deshabilitado
+                .onErrorResume(AuthenticationException.class, e -> Mono.just(ResponseEntity.status(401)
+                        .body(new ErrorResponseDTO("Credenciales inválidas"))));
+    }
+}
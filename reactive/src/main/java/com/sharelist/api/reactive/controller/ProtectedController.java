@@ -0,0 +1,25 @@
+package com.sharelist.api.reactive.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador REST que expone un endpoint protegido.
+ * Sirve para comprobar que la autenticación mediante JWT funciona correctamente.
+ */
+@RestController
+@RequestMapping("/api/protected")
+public class ProtectedController {
+
+    /**
+     * Endpoint GET que solo puede ser accedido con un token JWT válido.
+     *
+     * @return Mensaje indicando que se accedió correctamente.
+     */
+    @GetMapping
+    public Mono<String> getProtectedMessage() {
+        return Mono.just("¡Accediste correctamente a un recurso protegido!");
+    }
+}
@@ -0,0 +1,31 @@
+package com.sharelist.api.reactive.controller;
+
+import com.sharelist.api.reactive.dto.UserRegistrationDTO;
+import com.sharelist.api.reactive.dto.UserResponseDTO;
+import com.sharelist.api.reactive.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+/**
+ * Controlador REST de usuarios de la variante reactiva.
+ */
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class UserController {
+
+    private final UserService userService;
+
+    /**
+     * Endpoint para registrar un nuevo usuario.
+     *
+     * @param dto Objeto con los datos necesarios para el registro (username, password, email, fullName)
+     * @return ResponseEntity con los datos públicos del usuario creado (sin la contraseña) y status 200 OK
+     */
+    @PostMapping("/register")
+    public Mono<ResponseEntity<UserResponseDTO>> register(@Valid @RequestBody UserRegistrationDTO dto) {
+        return userService.register(dto).map(user -> ResponseEntity.ok(UserResponseDTO.from(user)));
+    }
+}
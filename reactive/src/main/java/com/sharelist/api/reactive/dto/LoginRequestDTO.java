@@ -0,0 +1,16 @@
+package com.sharelist.api.reactive.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+/**
+ * DTO que representa los datos recibidos en una solicitud de inicio de sesión.
+ */
+@Data
+public class LoginRequestDTO {
+
+    @NotBlank(message = "El nombre de usuario es obligatorio")
+    private String username;
+
+    @NotBlank(message = "La contraseña es obligatoria")
+    private String password;
+}
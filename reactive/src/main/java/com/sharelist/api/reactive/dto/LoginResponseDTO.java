@@ -0,0 +1,13 @@
+package com.sharelist.api.reactive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+/**
+ * DTO que representa la respuesta devuelta tras un inicio de sesión exitoso.
+ * La renovación y el cierre de sesión siguen en la variante principal, así que sólo contiene el access token.
+ */
+@Data
+@AllArgsConstructor
+public class LoginResponseDTO {
+    private String token;
+}
@@ -0,0 +1,20 @@
+package com.sharelist.api.reactive.dto;
+
+import com.sharelist.api.reactive.model.User;
+/**
+ * DTO con los datos públicos de un usuario, devuelto tras el registro.
+ * No incluye la contraseña (ni su hash): la entidad User nunca se serializa directamente.
+ *
+ * @param id       Identificador del usuario.
+ * @param username Nombre de usuario.
+ * @param email    Correo electrónico.
+ * @param fullName Nombre completo.
+ * @param enabled  Si el usuario está habilitado.
+ */
+public record UserResponseDTO(Long id, String username, String email, String fullName, boolean enabled) {
+
+    public static UserResponseDTO from(User user) {
+        return new UserResponseDTO(user.getId(), user.getUsername(), user.getEmail(), user.getFullName(),
+                user.isEnabled());
+    }
+}
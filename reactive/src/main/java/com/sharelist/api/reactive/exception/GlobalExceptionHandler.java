@@ -0,0 +1,82 @@
+package com.sharelist.api.reactive.exception;
+
+import com.sharelist.api.reactive.dto.ErrorResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+/**
+ * Manejo centralizado de las excepciones de los controladores, con las mismas respuestas que la variante principal.
+ */
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    // Valor de la cabecera Retry-After cuando el scheduler de cifrado está saturado
+    @Value("${security.password.hashing.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    /**
+     * Maneja los casos en los que se intenta registrar un usuario que ya existe.
+     *
+     * @param ex excepción lanzada desde el servicio de usuarios.
+     * @return respuesta HTTP con código 409 (CONFLICT) y el mensaje del error.
+     */
+    @ExceptionHandler(UserAlreadyExistsException.class)
+    public ResponseEntity<ErrorResponseDTO> handleUserAlreadyExists(UserAlreadyExistsException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponseDTO(ex.getMessage()));
+    }
+
+    /**
+     * Maneja errores de validación cuando los datos enviados no cumplen las restricciones.
+     *
+     * @param ex excepción lanzada por WebFlux al fallar una validación con @Valid.
+     * @return mensaje de error y mapa con nombre del campo y mensaje de error, y un código 400 (BAD REQUEST).
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponseDTO> handleValidationErrors(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+
+        for (FieldError fieldError : ex.getBindingResult().getFieldErrors()) {
+            errors.put(fieldError.getField(), fieldError.getDefaultMessage());
+        }
+
+        return ResponseEntity.badRequest().body(new ErrorResponseDTO("Datos inválidos", errors));
+    }
+
+    /**
+     * Maneja los casos en los que el scheduler de cifrado de contraseñas está lleno y rechaza la tarea.
+     *
+     * @param ex excepción lanzada por el scheduler acotado al superar su cola.
+     * @return respuesta HTTP con código 503 (SERVICE UNAVAILABLE) y la cabecera Retry-After.
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponseDTO> handleServiceOverloaded(RejectedExecutionException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(new ErrorResponseDTO("El servidor está ocupado. Inténtalo de nuevo en unos segundos."));
+    }
+
+    /**
+     * Captura cualquier otra excepción no manejada de forma específica.
+     *
+     * @param ex la excepción lanzada.
+     * @return respuesta con código 500 (INTERNAL SERVER ERROR) y un mensaje genérico.
+     *         El detalle sólo va al log: el mensaje de la excepción puede incluir SQL, nombres de tablas o datos.
+     */
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponseDTO> handleGenericException(Exception ex) {
+        log.error("Error inesperado", ex);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(new ErrorResponseDTO("Ha ocurrido un error inesperado"));
+    }
+}
@@ -0,0 +1,11 @@
+package com.sharelist.api.reactive.exception;
+
+/**
+ * Excepción que se lanza cuando se intenta registrar un usuario con un nombre de usuario
+ * o correo electrónico ya existente.
+ */
+public class UserAlreadyExistsException extends RuntimeException {
+    public UserAlreadyExistsException(String message) {
+        super(message);
+    }
+}
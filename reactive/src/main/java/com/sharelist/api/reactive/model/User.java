@@ -0,0 +1,35 @@
+package com.sharelist.api.reactive.model;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+/**
+ * Usuario mapeado con Spring Data R2DBC sobre una tabla "users" con el mismo esquema que la de la variante JPA,
+ * en una base de datos propia (ver README).
+ * El esquema lo crean las migraciones Flyway del módulo principal.
+ */
+@Table("users")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class User {
+
+    // Nombre de la restricción única del email; se usa para saber qué campo está repetido al insertar
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_users_email";
+
+    @Id
+    private Long id;
+
+    private String username;
+
+    private String password;
+
+    private String email;
+
+    @Column("full_name")
+    private String fullName;
+
+    private boolean enabled;
+}
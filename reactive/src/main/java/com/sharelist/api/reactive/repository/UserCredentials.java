@@ -0,0 +1,11 @@
+package com.sharelist.api.reactive.repository;
+
+/**
+ * Proyección con los únicos datos de un usuario que necesita la autenticación.
+ *
+ * @param username nombre de usuario
+ * @param password hash de la contraseña
+ * @param enabled  si el usuario puede iniciar sesión
+ */
+public record UserCredentials(String username, String password, boolean enabled) {
+}
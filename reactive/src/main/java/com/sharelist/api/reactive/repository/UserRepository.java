@@ -0,0 +1,18 @@
+package com.sharelist.api.reactive.repository;
+
+import com.sharelist.api.reactive.model.User;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+/**
+ * Repositorio reactivo de usuarios (R2DBC): cada consulta devuelve un Mono sin bloquear ningún hilo.
+ */
+public interface UserRepository extends ReactiveCrudRepository<User, Long> {
+    /**
+     * Busca sólo las credenciales de un usuario (username, contraseña y estado), para la autenticación.
+     * @param username nombre de usuario a buscar.
+     * @return las credenciales, o vacío si no existe.
+     */
+    @Query("SELECT username, password, enabled FROM users WHERE username = :username")
+    Mono<UserCredentials> findCredentialsByUsername(String username);
+}
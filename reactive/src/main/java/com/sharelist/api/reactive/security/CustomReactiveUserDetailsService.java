@@ -0,0 +1,39 @@
+package com.sharelist.api.reactive.security;
+
+import com.sharelist.api.reactive.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Versión reactiva de CustomUserDetailsService: carga las credenciales del usuario con R2DBC.
+ */
+@Service
+@RequiredArgsConstructor
+public class CustomReactiveUserDetailsService implements ReactiveUserDetailsService {
+
+    private final UserRepository userRepository;
+
+    /**
+     * Busca las credenciales del usuario y construye el UserDetails.
+     * Si no existe se emite UsernameNotFoundException en lugar de un Mono vacío: el AuthenticationManager
+     * convertiría el vacío en "credenciales inválidas", y el login distingue ambos casos (404 y 401).
+     *
+     * @param username nombre de usuario proporcionado en el login
+     * @return el usuario, o error UsernameNotFoundException si no existe
+     */
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return userRepository.findCredentialsByUsername(username)
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("Usuario no encontrado: " + username)))
+                .map(user -> User.withUsername(user.username())
+                        .password(user.password())
+                        .authorities("USER")
+                        .disabled(!user.enabled())
+                        .build());
+    }
+}
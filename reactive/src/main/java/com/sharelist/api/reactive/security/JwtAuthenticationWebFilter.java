@@ -0,0 +1,77 @@
+package com.sharelist.api.reactive.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Equivalente reactivo de JwtTokenFilter: lee el token Bearer, lo verifica y deja la autenticación
+ * en el contexto de Reactor para el resto de la cadena.
+ *
+ * Autentica sólo con los claims del token (como el modo stateless de la variante principal): no consulta
+ * la base de datos en cada petición. Verificar un HS256 es un cálculo corto, así que se hace en el propio
+ * hilo del event loop sin cambiar de scheduler.
+ *
+ * No comprueba revocaciones (esta variante no recibe las de SharedAuthState) ni si el usuario sigue habilitado.
+ * Por eso no puede desplegarse junto a la variante principal sobre los mismos usuarios ni con su clave de firma
+ * (ver README).
+ *
+ * No se registra como bean: SecurityConfig lo añade a la cadena de seguridad. Como bean, WebFlux
+ * lo aplicaría además a todas las peticiones fuera de ella.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtTokenProvider jwtTokenProvider;
+
+    // Rutas públicas: no se lee ni se verifica el token
+    private final ServerWebExchangeMatcher publicPaths;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return publicPaths.matches(exchange)
+                .flatMap(match -> match.isMatch() ? chain.filter(exchange) : authenticate(exchange, chain));
+    }
+
+    private Mono<Void> authenticate(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return chain.filter(exchange);
+        }
+
+        Optional<Claims> verified = jwtTokenProvider.verify(authHeader.substring(BEARER_PREFIX.length()));
+        if (verified.isEmpty()) {
+            log.debug("Token JWT inválido o expirado en petición a {}", exchange.getRequest().getPath());
+            return chain.filter(exchange);
+        }
+
+        // Los refresh tokens no sirven como access token, y los usuarios deshabilitados no se autentican
+        Claims claims = verified.get();
+        if (claims.getSubject() == null || jwtTokenProvider.isRefreshToken(claims) || !jwtTokenProvider.isEnabled(claims)) {
+            log.debug("Token JWT no válido como access token en petición a {}", exchange.getRequest().getPath());
+            return chain.filter(exchange);
+        }
+
+        Collection<GrantedAuthority> authorities = jwtTokenProvider.getAuthorities(claims);
+        User principal = new User(claims.getSubject(), "", authorities);
+        var authentication = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        return chain.filter(exchange)
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+    }
+}
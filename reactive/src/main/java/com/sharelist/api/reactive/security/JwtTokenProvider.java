@@ -0,0 +1,129 @@
+package com.sharelist.api.reactive.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.security.Key;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Emisión y verificación de tokens JWT (HS256) con el mismo formato que la variante principal:
+ * con la misma clave secreta, los tokens emitidos por una variante se aceptan en la otra.
+ */
+@Component
+public class JwtTokenProvider {
+
+    // Mismos nombres de claims que la variante principal
+    static final String AUTHORITIES_CLAIM = "roles";
+    static final String ENABLED_CLAIM = "enabled";
+    static final String COMPACT_AUTHORITIES_CLAIM = "r";
+    static final String TOKEN_TYPE_CLAIM = "typ";
+    static final String REFRESH_TOKEN_TYPE = "refresh";
+
+    @Value("${security.jwt.secret-key}")
+    private String secretKey;
+
+    @Value("${security.jwt.expire-length}")
+    private long validityInMilliseconds;
+
+    private Key key;
+
+    // Parser construido una sola vez: es inmutable y seguro para usar desde varios hilos
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    protected void init() {
+        key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+    }
+
+    /**
+     * Genera un token JWT con el username, los permisos del usuario y si está habilitado,
+     * de modo que el filtro puede autenticar sólo con el token, sin consultar la base de datos.
+     *
+     * @param userDetails usuario autenticado
+     * @return token JWT firmado y con fecha de expiración
+     */
+    public String createToken(UserDetails userDetails) {
+        Date now = new Date();
+        List<String> authorities = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
+        return Jwts.builder()
+                .setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString())
+                .claim(AUTHORITIES_CLAIM, authorities)
+                .claim(ENABLED_CLAIM, userDetails.isEnabled())
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + validityInMilliseconds))
+                .signWith(key, SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    /**
+     * Parsea el token, verifica su firma y comprueba que no haya expirado en una sola pasada.
+     *
+     * @param token JWT recibido
+     * @return los claims verificados, o vacío si el token está corrupto, manipulado o expirado
+     */
+    public Optional<Claims> verify(String token) {
+        try {
+            return Optional.of(jwtParser.parseClaimsJws(token).getBody());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Indica si unos claims verificados pertenecen a un refresh token (que no debe aceptarse como access token).
+     */
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM, String.class));
+    }
+
+    /**
+     * Obtiene los permisos guardados en los claims de un token ya verificado.
+     * Admite también los tokens compactos de la variante principal (permisos en "r", separados por espacios).
+     */
+    public Collection<GrantedAuthority> getAuthorities(Claims claims) {
+        String compact = claims.get(COMPACT_AUTHORITIES_CLAIM, String.class);
+        if (compact != null) {
+            return compact.isEmpty() ? List.of() : Arrays.stream(compact.split(" "))
+                    .map(value -> (GrantedAuthority) new SimpleGrantedAuthority(value))
+                    .toList();
+        }
+        Object roles = claims.get(AUTHORITIES_CLAIM);
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        return values.stream()
+                .map(value -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(value)))
+                .toList();
+    }
+
+    /**
+     * Indica si el usuario estaba habilitado cuando se emitió el token (los tokens sin el claim se consideran habilitados).
+     */
+    public boolean isEnabled(Claims claims) {
+        Boolean enabled = claims.get(ENABLED_CLAIM, Boolean.class);
+        return enabled == null || enabled;
+    }
+}
@@ -0,0 +1,55 @@
+package com.sharelist.api.reactive.service;
+
+import com.sharelist.api.reactive.dto.UserRegistrationDTO;
+import com.sharelist.api.reactive.exception.UserAlreadyExistsException;
+import com.sharelist.api.reactive.model.User;
+import com.sharelist.api.reactive.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Locale;
+/**
+ * Registro de usuarios en la variante reactiva.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserService {
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    // Scheduler acotado en el que se ejecuta BCrypt, fuera del event loop
+    private final Scheduler passwordHashingScheduler;
+
+    /**
+     * Registra un nuevo usuario. La contraseña se cifra en el scheduler de cifrado y el usuario
+     * se guarda con un único INSERT; las restricciones únicas de la tabla detectan los duplicados.
+     *
+     * @param dto datos del registro
+     * @return el usuario guardado, o error UserAlreadyExistsException si el username o el email ya existen
+     */
+    public Mono<User> register(UserRegistrationDTO dto) {
+        return Mono.fromCallable(() -> passwordEncoder.encode(dto.getPassword()))
+                .subscribeOn(passwordHashingScheduler)
+                .flatMap(hash -> userRepository.save(User.builder()
+                        .username(dto.getUsername())
+                        .password(hash)
+                        .email(dto.getEmail())
+                        .fullName(dto.getFullName())
+                        .enabled(true)
+                        .build()))
+                .onErrorMap(DataIntegrityViolationException.class, UserService::toUserAlreadyExists);
+    }
+
+    private static UserAlreadyExistsException toUserAlreadyExists(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains(User.EMAIL_UNIQUE_CONSTRAINT)) {
+            return new UserAlreadyExistsException("El correo electrónico ya está en uso.");
+        }
+        return new UserAlreadyExistsException("El nombre de usuario ya está en uso.");
+    }
+}
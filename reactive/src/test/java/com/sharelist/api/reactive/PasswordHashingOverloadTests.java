@@ -0,0 +1,77 @@
+package com.sharelist.api.reactive;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test del scheduler acotado de BCrypt: con su hilo ocupado y su cola llena, el login responde 503 con Retry-After.
+ */
+@SpringBootTest(properties = {
+        "security.password.hashing.pool-size=1",
+        "security.password.hashing.queue-capacity=1",
+        "security.password.hashing.retry-after-seconds=2"
+})
+@AutoConfigureWebTestClient
+class PasswordHashingOverloadTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private Scheduler passwordHashingScheduler;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void loginReturns503WhenHashingSchedulerIsFull() throws InterruptedException {
+        // El usuario debe existir: la contraseña sólo se comprueba en el scheduler si se encuentra
+        webTestClient.post().uri("/api/users/register")
+                .bodyValue(Map.of("username", "carla", "password", "123456",
+                        "email", "carla@example.com", "fullName", "Carla"))
+                .exchange()
+                .expectStatus().isOk();
+
+        // Una tarea ocupa el único hilo y otra llena la cola
+        CountDownLatch started = new CountDownLatch(1);
+        passwordHashingScheduler.schedule(() -> {
+            started.countDown();
+            awaitRelease();
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        passwordHashingScheduler.schedule(this::awaitRelease);
+
+        webTestClient.post().uri("/api/auth/login")
+                .bodyValue(Map.of("username", "carla", "password", "123456"))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE)
+                .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "2")
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("El servidor está ocupado. Inténtalo de nuevo en unos segundos.");
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
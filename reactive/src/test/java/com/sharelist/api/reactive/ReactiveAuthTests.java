@@ -0,0 +1,80 @@
+package com.sharelist.api.reactive;
+
+import com.sharelist.api.reactive.dto.LoginResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la variante reactiva: registro, login y acceso al recurso protegido con el token.
+ */
+@SpringBootTest
+@AutoConfigureWebTestClient
+class ReactiveAuthTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void registersLogsInAndAccessesProtectedResource() {
+        register("ana", "ana@example.com");
+
+        LoginResponseDTO login = webTestClient.post().uri("/api/auth/login")
+                .bodyValue(Map.of("username", "ana", "password", "123456"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(LoginResponseDTO.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(login).isNotNull();
+
+        webTestClient.get().uri("/api/protected")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + login.getToken())
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void rejectsWrongPasswordUnknownUserAndMissingToken() {
+        register("luis", "luis@example.com");
+
+        webTestClient.post().uri("/api/auth/login")
+                .bodyValue(Map.of("username", "luis", "password", "incorrecta"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        webTestClient.post().uri("/api/auth/login")
+                .bodyValue(Map.of("username", "nadie", "password", "123456"))
+                .exchange()
+                .expectStatus().isNotFound();
+
+        webTestClient.get().uri("/api/protected")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void rejectsDuplicateUsername() {
+        register("marta", "marta@example.com");
+
+        webTestClient.post().uri("/api/users/register")
+                .bodyValue(Map.of("username", "marta", "password", "123456",
+                        "email", "otra@example.com", "fullName", "Marta"))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+    }
+
+    private void register(String username, String email) {
+        webTestClient.post().uri("/api/users/register")
+                .bodyValue(Map.of("username", username, "password", "123456", "email", email, "fullName", username))
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
@@ -0,0 +1,12 @@
+-- Copia de src/main/resources/db/migration/V1__create_users.sql del módulo principal, para H2 en los tests.
+CREATE TABLE users (
+    id        BIGINT       NOT NULL AUTO_INCREMENT,
+    username  VARCHAR(255) NOT NULL,
+    password  VARCHAR(255) NOT NULL,
+    email     VARCHAR(255),
+    full_name VARCHAR(255),
+    enabled   BOOLEAN      NOT NULL DEFAULT TRUE,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
@@ -0,0 +1,128 @@
+#!/usr/bin/env bash
+#
+# Compara el tiempo de arranque y la latencia de las primeras peticiones en cada modo de ejecución:
+#   jvm      java -jar (sin optimizaciones)
+#   aot      java -Dspring.aot.enabled=true -jar        (mvn -Paot package)
+#   cds      java -XX:SharedArchiveFile=... -jar        (mvn -Pcds package)
+#   aot-cds  AOT + CDS                                  (mvn -Paot,cds package)
+#   native   imagen nativa de GraalVM                   (mvn -Pnative native:compile)
+#
+# Para cada modo arranca la aplicación RUNS veces y mide:
+#   - startup: desde que se lanza el proceso hasta que /actuator/health responde
+#   - first register / login / protected: la primera petición a cada endpoint (JIT frío, BCrypt, JJWT, Jackson)
+#
+# Uso:   scripts/startup-benchmark.sh [modo...]     (por defecto, los modos cuyos artefactos existen)
+# Requiere la configuración de base de datos habitual (application.yml o SPRING_* / DB_* en el entorno).
+# Los resultados se guardan en target/startup-benchmark.csv.
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18080}
+BASE_URL="http://localhost:${PORT}"
+JAR=target/sharelist-api-0.0.1-SNAPSHOT.jar
+CDS_JAR=target/cds/sharelist-api-0.0.1-SNAPSHOT.jar
+CDS_ARCHIVE=target/cds/application.jsa
+NATIVE_BINARY=target/sharelist-api
+RESULTS=target/startup-benchmark.csv
+
+now_ms() {
+  echo $(( $(date +%s%N) / 1000000 ))
+}
+
+# Comando de arranque de cada modo
+command_for() {
+  case "$1" in
+    jvm)     echo "java -jar ${JAR}" ;;
+    aot)     echo "java -Dspring.aot.enabled=true -jar ${JAR}" ;;
+    cds)     echo "java -XX:SharedArchiveFile=${CDS_ARCHIVE} -jar ${CDS_JAR}" ;;
+    aot-cds) echo "java -XX:SharedArchiveFile=${CDS_ARCHIVE} -Dspring.aot.enabled=true -jar ${CDS_JAR}" ;;
+    native)  echo "${NATIVE_BINARY}" ;;
+    *)       echo "Modo desconocido: $1" >&2; exit 1 ;;
+  esac
+}
+
+available() {
+  case "$1" in
+    jvm|aot)     [[ -f ${JAR} ]] ;;
+    cds|aot-cds) [[ -f ${CDS_ARCHIVE} ]] ;;
+    native)      [[ -x ${NATIVE_BINARY} ]] ;;
+  esac
+}
+
+# Tiempo en milisegundos de una petición HTTP (curl mide desde la conexión hasta el último byte)
+timed_request() {
+  local seconds
+  seconds=$(curl -s -o /dev/null -w '%{time_total}' "$@")
+  awk -v s="${seconds}" 'BEGIN { printf "%d", s * 1000 }'
+}
+
+run_once() {
+  local mode=$1 run=$2
+  local username="bench_${mode//-/_}_${run}_$$"
+  local start pid startup register login protected token
+
+  start=$(now_ms)
+  # shellcheck disable=SC2046
+  $(command_for "${mode}") --server.port="${PORT}" --security.rate-limit.enabled=false > "target/startup-${mode}.log" 2>&1 &
+  pid=$!
+
+  until curl -sf -o /dev/null "${BASE_URL}/actuator/health"; do
+    if ! kill -0 "${pid}" 2>/dev/null; then
+      echo "La aplicación (${mode}) se ha detenido, ver target/startup-${mode}.log" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  startup=$(( $(now_ms) - start ))
+
+  register=$(timed_request -X POST "${BASE_URL}/api/users/register" -H 'Content-Type: application/json' \
+    -d "{\"username\":\"${username}\",\"password\":\"123456\",\"email\":\"${username}@example.com\",\"fullName\":\"Bench\"}")
+  login=$(timed_request -X POST "${BASE_URL}/api/auth/login" -H 'Content-Type: application/json' \
+    -d "{\"username\":\"${username}\",\"password\":\"123456\"}")
+  token=$(curl -s -X POST "${BASE_URL}/api/auth/login" -H 'Content-Type: application/json' \
+    -d "{\"username\":\"${username}\",\"password\":\"123456\"}" | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')
+  protected=$(timed_request "${BASE_URL}/api/protected" -H "Authorization: Bearer ${token}")
+
+  kill "${pid}"
+  wait "${pid}" 2>/dev/null || true
+
+  echo "${mode},${run},${startup},${register},${login},${protected}" >> "${RESULTS}"
+  printf '%-8s run %d: startup %5d ms | register %4d ms | login %4d ms | protected %4d ms\n' \
+    "${mode}" "${run}" "${startup}" "${register}" "${login}" "${protected}"
+}
+
+modes=("$@")
+if [[ ${#modes[@]} -eq 0 ]]; then
+  for mode in jvm aot cds aot-cds native; do
+    if available "${mode}"; then
+      modes+=("${mode}")
+    fi
+  done
+fi
+if [[ ${#modes[@]} -eq 0 ]]; then
+  echo "No hay artefactos: ejecuta antes mvn package (y -Paot, -Pcds o -Pnative)" >&2
+  exit 1
+fi
+
+mkdir -p target
+echo "mode,run,startup_ms,first_register_ms,first_login_ms,first_protected_ms" > "${RESULTS}"
+for mode in "${modes[@]}"; do
+  for run in $(seq 1 "${RUNS}"); do
+    run_once "${mode}" "${run}"
+  done
+done
+
+# Mediana por modo de cada columna
+median() {
+  grep "^$1," "${RESULTS}" | cut -d, -f"$2" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+echo
+echo "Medianas (ms):"
+for mode in "${modes[@]}"; do
+  printf '%-8s startup %5d | register %4d | login %4d | protected %4d\n' "${mode}" \
+    "$(median "${mode}" 3)" "$(median "${mode}" 4)" "$(median "${mode}" 5)" "$(median "${mode}" 6)"
+done
@@ -0,0 +1,93 @@
+package com.sharelist.api.repository;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de las consultas del camino de autenticación contra una base de datos H2 en memoria (modo MySQL),
+ * con el esquema de Flyway y un pool Hikari: no necesita MySQL ni contenedores.
+ *
+ * Mide la búsqueda por username del login (índice único), tanto de la fila completa como de las credenciales
+ * que selecciona UserRepository.findCredentialsByUsername, y el insert en batch del registro masivo.
+ * Los valores absolutos no son los de MySQL, pero sirven para comparar cambios de esquema y de consultas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class UserQueryBenchmark {
+
+    private static final String FIND_BY_USERNAME_SQL =
+            "SELECT id, username, password, email, full_name, enabled FROM users WHERE username = ?";
+    private static final String FIND_CREDENTIALS_BY_USERNAME_SQL =
+            "SELECT username, password, enabled FROM users WHERE username = ?";
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, password, email, full_name, enabled) VALUES (?, ?, ?, ?, ?)";
+    private static final String PASSWORD_HASH = "{bcrypt}$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z1B2s0J6n6CjM7xT1kY5mQ1W";
+
+    @Param({"10000"})
+    public int users;
+
+    @Param({"100"})
+    public int batchSize;
+
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private long insertSequence;
+
+    @Setup
+    public void setUp() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(4);
+        dataSource = new HikariDataSource(config);
+
+        Flyway.configure().dataSource(dataSource).cleanDisabled(false).load().clean();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Object[]> rows = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            rows.add(new Object[]{"user" + i, PASSWORD_HASH, "user" + i + "@example.com", "User " + i, true});
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Object findByUsername() {
+        String username = "user" + ThreadLocalRandom.current().nextInt(users);
+        return jdbcTemplate.queryForMap(FIND_BY_USERNAME_SQL, username);
+    }
+
+    @Benchmark
+    public Object findCredentialsByUsername() {
+        String username = "user" + ThreadLocalRandom.current().nextInt(users);
+        return jdbcTemplate.queryForMap(FIND_CREDENTIALS_BY_USERNAME_SQL, username);
+    }
+
+    @Benchmark
+    public int[] batchInsert() {
+        List<Object[]> rows = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            long n = insertSequence++;
+            rows.add(new Object[]{"batch" + n, PASSWORD_HASH, "batch" + n + "@example.com", "Batch " + n, true});
+        }
+        return jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows);
+    }
+}
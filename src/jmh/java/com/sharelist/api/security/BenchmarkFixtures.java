@@ -0,0 +1,114 @@
+package com.sharelist.api.security;
+
+import com.sharelist.api.metrics.AuthMetrics;
+import com.sharelist.api.model.User;
+import com.sharelist.api.repository.UserCredentials;
+import com.sharelist.api.repository.UserRepository;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Construye los componentes de seguridad fuera de Spring para los benchmarks,
+ * inyectando a mano la configuración que normalmente llega desde application.yml.
+ */
+final class BenchmarkFixtures {
+
+    static final String SECRET_KEY = "benchmark_secret_key_that_is_long_enough_for_hs256";
+    static final String USERNAME = "juan";
+
+    private BenchmarkFixtures() {
+    }
+
+    static JwtTokenProvider jwtTokenProvider() {
+        return jwtTokenProvider(SignatureAlgorithm.HS256);
+    }
+
+    static JwtTokenProvider jwtTokenProvider(SignatureAlgorithm algorithm) {
+        JwtTokenProvider provider = new JwtTokenProvider(new AuthMetrics(new SimpleMeterRegistry()), keyRing(algorithm));
+        ReflectionTestUtils.setField(provider, "secretKey", SECRET_KEY);
+        ReflectionTestUtils.setField(provider, "validityInMilliseconds", 3_600_000L);
+        provider.init();
+        return provider;
+    }
+
+    static JwtTokenPrecheck tokenPrecheck() {
+        JwtTokenPrecheck precheck = new JwtTokenPrecheck(keyRing(SignatureAlgorithm.HS256),
+                new AuthMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(precheck, "maxTokenLength", 4096);
+        precheck.init();
+        return precheck;
+    }
+
+    static CustomUserDetailsService userDetailsService(UserRepository userRepository, boolean cacheEnabled) {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, new LocalSharedAuthState());
+        ReflectionTestUtils.setField(service, "cacheEnabled", cacheEnabled);
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 10_000);
+        ReflectionTestUtils.setField(service, "cacheTtlInMilliseconds", 60_000L);
+        service.init();
+        return service;
+    }
+
+    static RevocationStore revocationStore() {
+        RevocationStore store = new RevocationStore(new LocalSharedAuthState());
+        ReflectionTestUtils.setField(store, "maxTokenLifetimeInMilliseconds", 604_800_000L);
+        store.init();
+        return store;
+    }
+
+    static PublicPathRegistry publicPathRegistry() {
+        PublicPathRegistry registry = new PublicPathRegistry();
+        ReflectionTestUtils.setField(registry, "publicPaths", List.of("/api/users/register", "/api/auth/login"));
+        registry.init();
+        return registry;
+    }
+
+    static VerifiedTokenCache verifiedTokenCache(boolean enabled) {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "enabled", enabled);
+        ReflectionTestUtils.setField(cache, "maxSize", 10_000);
+        cache.init();
+        return cache;
+    }
+
+    private static JwtKeyRing keyRing(SignatureAlgorithm algorithm) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", algorithm);
+        ReflectionTestUtils.setField(keyRing, "rotationIntervalInMilliseconds", 86_400_000L);
+        ReflectionTestUtils.setField(keyRing, "gracePeriodInMilliseconds", 604_800_000L);
+        keyRing.init();
+        return keyRing;
+    }
+
+    /**
+     * Repositorio en memoria que sólo responde a las búsquedas por username: aísla el coste del filtro del de la base de datos.
+     */
+    static UserRepository userRepository(String password) {
+        User user = User.builder()
+                .id(1L)
+                .username(USERNAME)
+                .password(password)
+                .email("juan@example.com")
+                .fullName("Juan Pérez")
+                .enabled(true)
+                .build();
+
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[]{UserRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByUsername" -> USERNAME.equals(args[0]) ? Optional.of(user) : Optional.empty();
+                    case "findCredentialsByUsername" -> USERNAME.equals(args[0])
+                            ? Optional.of(new UserCredentials(user.getUsername(), user.getPassword(), user.isEnabled()))
+                            : Optional.empty();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "UserRepositoryStub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,69 @@
+package com.sharelist.api.security;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste completo de {@link JwtTokenFilter#doFilterInternal} para una petición con un token válido,
+ * con un repositorio en memoria en lugar de MySQL. Se mide con y sin las cachés y en modo stateless.
+ * Con el profiler de GC de JMH (-prof gc) se ve además cuánta memoria reserva el filtro por petición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean stateless;
+
+    @Param({"false", "true"})
+    public boolean userCache;
+
+    @Param({"false", "true"})
+    public boolean tokenCache;
+
+    private JwtTokenFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    // La cadena no hace nada: sólo medimos el filtro
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider provider = BenchmarkFixtures.jwtTokenProvider();
+        CustomUserDetailsService userDetailsService = BenchmarkFixtures.userDetailsService(
+                BenchmarkFixtures.userRepository("{noop}123456"), userCache);
+
+        filter = new JwtTokenFilter(provider, userDetailsService, BenchmarkFixtures.verifiedTokenCache(tokenCache),
+                BenchmarkFixtures.revocationStore(), BenchmarkFixtures.publicPathRegistry(),
+                BenchmarkFixtures.tokenPrecheck());
+        ReflectionTestUtils.setField(filter, "stateless", stateless);
+
+        String token = provider.createToken(userDetailsService.loadUserByUsername(BenchmarkFixtures.USERNAME));
+        request = new MockHttpServletRequest("GET", "/api/protected");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Authentication doFilterInternal() throws Exception {
+        try {
+            filter.doFilterInternal(request, response, chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
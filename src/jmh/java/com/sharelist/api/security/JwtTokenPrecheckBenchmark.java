@@ -0,0 +1,55 @@
+package com.sharelist.api.security;
+
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de {@link JwtTokenPrecheck} frente a la verificación completa de {@link JwtTokenProvider#verify}
+ * para un token válido, uno que no es un JWT y uno expirado: lo que se ahorra el filtro en los tokens basura.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenPrecheckBenchmark {
+
+    @Param({"valid", "garbage", "expired"})
+    public String kind;
+
+    private JwtTokenPrecheck precheck;
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        precheck = BenchmarkFixtures.tokenPrecheck();
+        provider = BenchmarkFixtures.jwtTokenProvider();
+        String valid = provider.createToken(BenchmarkFixtures.USERNAME);
+        token = switch (kind) {
+            case "garbage" -> "not-a-jwt!" + valid.substring(0, 40);
+            // Mismo token con un payload ya expirado (la firma deja de ser válida, como en un token manipulado)
+            case "expired" -> valid.substring(0, valid.indexOf('.') + 1)
+                    + Base64.getUrlEncoder().withoutPadding().encodeToString(
+                            "{\"sub\":\"juan\",\"iat\":1,\"exp\":2}".getBytes(StandardCharsets.UTF_8))
+                    + valid.substring(valid.lastIndexOf('.'));
+            default -> valid;
+        };
+    }
+
+    @Benchmark
+    public JwtTokenPrecheck.Result check() {
+        return precheck.check(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> verify() {
+        return provider.verify(token);
+    }
+}
@@ -0,0 +1,47 @@
+package com.sharelist.api.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de emitir y verificar tokens con {@link JwtTokenProvider}, para cada algoritmo de firma soportado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    @Param({"HS256", "RS256", "ES256"})
+    public SignatureAlgorithm algorithm;
+
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        provider = BenchmarkFixtures.jwtTokenProvider(algorithm);
+        token = provider.createToken(BenchmarkFixtures.USERNAME);
+    }
+
+    @Benchmark
+    public String createToken() {
+        return provider.createToken(BenchmarkFixtures.USERNAME);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return provider.validateToken(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> verify() {
+        return provider.verify(token);
+    }
+}
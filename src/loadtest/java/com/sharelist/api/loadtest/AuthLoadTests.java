@@ -0,0 +1,354 @@
+package com.sharelist.api.loadtest;
+
+import com.sharelist.api.model.User;
+import com.sharelist.api.repository.UserRepository;
+import com.sharelist.api.security.CustomUserDetailsService;
+import com.sharelist.api.security.JwtTokenProvider;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prueba de carga de extremo a extremo: arranca la aplicación completa (Tomcat, filtros, JPA, Flyway) sobre H2
+ * en memoria en lugar de MySQL y lanza tráfico mixto desde varios hilos durante un tiempo fijo.
+ *
+ * Mide el throughput y los percentiles p50/p99/p999 de cada tipo de petición y falla si se supera algún SLO.
+ * Se ejecuta sólo con el perfil loadtest (mvn -Ploadtest test) y se configura con propiedades del sistema:
+ * <ul>
+ *     <li>loadtest.concurrency (32), loadtest.warmup-seconds (10), loadtest.duration-seconds (30), loadtest.users (100)</li>
+ *     <li>loadtest.bcrypt-strength (10, el de producción)</li>
+ *     <li>loadtest.virtual-threads (false): activa spring.threads.virtual.enabled, para comparar ambos modos</li>
+ *     <li>loadtest.slo.&lt;operación&gt;.p99-ms y .p999-ms, loadtest.slo.max-error-rate (0.001),
+ *     loadtest.slo.min-throughput (0 = sin mínimo, en peticiones/s)</li>
+ * </ul>
+ * El informe se imprime por consola y se guarda en target/loadtest-report-&lt;platform|virtual&gt;.csv para comparar
+ * entre versiones y entre hilos de plataforma y virtuales.
+ * Las cifras de H2 no son las de MySQL: sirven para comparar cambios del camino de autenticación, no como capacidad.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        // Todo el tráfico llega desde 127.0.0.1: con el límite activo casi todos los logins serían 429
+        "security.rate-limit.enabled=false",
+        "security.password.bcrypt-strength=${loadtest.bcrypt-strength:10}",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "spring.threads.virtual.enabled=${loadtest.virtual-threads:false}"
+})
+class AuthLoadTests {
+
+    /**
+     * Tipos de petición, con su peso en el tráfico (sobre 100), el código esperado y los SLO por defecto.
+     * Login y registro incluyen un BCrypt completo, así que sus SLO son de otro orden.
+     */
+    enum Operation {
+        PROTECTED("protected", 70, 200, 50, 250),
+        EXPIRED_TOKEN("expired", 10, 401, 50, 250),
+        GARBAGE_TOKEN("garbage", 10, 401, 50, 250),
+        LOGIN("login", 7, 200, 1000, 2000),
+        REGISTER("register", 3, 200, 1000, 2000);
+
+        final String key;
+        final int weight;
+        final int expectedStatus;
+        final long defaultP99Millis;
+        final long defaultP999Millis;
+
+        Operation(String key, int weight, int expectedStatus, long defaultP99Millis, long defaultP999Millis) {
+            this.key = key;
+            this.weight = weight;
+            this.expectedStatus = expectedStatus;
+            this.defaultP99Millis = defaultP99Millis;
+            this.defaultP999Millis = defaultP999Millis;
+        }
+
+        static Operation pick(int roll) {
+            int accumulated = 0;
+            for (Operation operation : values()) {
+                accumulated += operation.weight;
+                if (roll < accumulated) {
+                    return operation;
+                }
+            }
+            return PROTECTED;
+        }
+    }
+
+    private static final String PASSWORD = "load-test-password";
+
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+    private final int warmupSeconds = Integer.getInteger("loadtest.warmup-seconds", 10);
+    private final int durationSeconds = Integer.getInteger("loadtest.duration-seconds", 30);
+    private final int userCount = Integer.getInteger("loadtest.users", 100);
+
+    @LocalServerPort
+    private int port;
+
+    @Value("${security.jwt.secret-key}")
+    private String secretKey;
+
+    @Value("${spring.threads.virtual.enabled}")
+    private boolean virtualThreads;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    // Los registros necesitan usernames y emails nuevos en cada petición
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong registrations = new AtomicLong();
+
+    private List<String> usernames;
+    private List<String> validTokens;
+    private List<String> expiredTokens;
+    private List<String> garbageTokens;
+
+    @Test
+    void mixedTrafficMeetsLatencySlos() throws Exception {
+        prepareData();
+
+        // Calentamiento: JIT, pools de conexiones y cachés; sus latencias se descartan
+        runLoad(warmupSeconds);
+
+        long start = System.nanoTime();
+        Map<Operation, LatencyRecorder> results = runLoad(durationSeconds);
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        List<String> violations = report(results, elapsedSeconds);
+        assertThat(violations).as("SLO incumplidos").isEmpty();
+    }
+
+    /**
+     * Crea los usuarios de prueba (con un único hash, para no tardar) y los tokens de cada tipo.
+     */
+    private void prepareData() {
+        String hash = passwordEncoder.encode(PASSWORD);
+        usernames = new ArrayList<>(userCount);
+        List<User> users = new ArrayList<>(userCount);
+        for (int i = 0; i < userCount; i++) {
+            String username = "load-" + runId + "-" + i;
+            usernames.add(username);
+            users.add(User.builder()
+                    .username(username)
+                    .password(hash)
+                    .email(username + "@example.com")
+                    .fullName("Load " + i)
+                    .enabled(true)
+                    .build());
+        }
+        userRepository.saveAll(users);
+
+        validTokens = new ArrayList<>(userCount);
+        expiredTokens = new ArrayList<>(userCount);
+        garbageTokens = new ArrayList<>(userCount);
+        var key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        Date issuedAt = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2));
+        Date expiredAt = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1));
+        for (String username : usernames) {
+            validTokens.add(jwtTokenProvider.createToken(userDetailsService.loadUserByUsername(username)));
+            // Firma correcta pero ya expirado
+            expiredTokens.add(Jwts.builder()
+                    .setSubject(username)
+                    .setId(UUID.randomUUID().toString())
+                    .setIssuedAt(issuedAt)
+                    .setExpiration(expiredAt)
+                    .signWith(key, SignatureAlgorithm.HS256)
+                    .compact());
+            byte[] noise = new byte[96];
+            ThreadLocalRandom.current().nextBytes(noise);
+            garbageTokens.add(Base64.getUrlEncoder().withoutPadding().encodeToString(noise));
+        }
+    }
+
+    /**
+     * Lanza tráfico desde {@code concurrency} hilos virtuales durante el tiempo indicado, cada uno en bucle cerrado
+     * (envía la siguiente petición al recibir la respuesta anterior).
+     */
+    private Map<Operation, LatencyRecorder> runLoad(int seconds) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<Map<Operation, LatencyRecorder>>> workers = new ArrayList<>(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.add(executor.submit(() -> drive(deadline)));
+            }
+        }
+
+        Map<Operation, LatencyRecorder> merged = newRecorders();
+        for (Future<Map<Operation, LatencyRecorder>> worker : workers) {
+            worker.get().forEach((operation, recorder) -> merged.get(operation).merge(recorder));
+        }
+        merged.values().forEach(LatencyRecorder::sort);
+        return merged;
+    }
+
+    private Map<Operation, LatencyRecorder> drive(long deadline) {
+        Map<Operation, LatencyRecorder> recorders = newRecorders();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() - deadline < 0) {
+            Operation operation = Operation.pick(random.nextInt(100));
+            HttpRequest request = request(operation, random);
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            recorders.get(operation).record(System.nanoTime() - start, status == operation.expectedStatus);
+        }
+        return recorders;
+    }
+
+    private HttpRequest request(Operation operation, ThreadLocalRandom random) {
+        return switch (operation) {
+            case PROTECTED -> bearer(validTokens.get(random.nextInt(validTokens.size())));
+            case EXPIRED_TOKEN -> bearer(expiredTokens.get(random.nextInt(expiredTokens.size())));
+            case GARBAGE_TOKEN -> bearer(garbageTokens.get(random.nextInt(garbageTokens.size())));
+            case LOGIN -> post("/api/auth/login", """
+                    {"username":"%s","password":"%s"}""".formatted(
+                    usernames.get(random.nextInt(usernames.size())), PASSWORD));
+            case REGISTER -> {
+                String username = "new-" + runId + "-" + registrations.incrementAndGet();
+                yield post("/api/users/register", """
+                        {"username":"%s","password":"%s","email":"%s@example.com","fullName":"New user"}""".formatted(
+                        username, PASSWORD, username));
+            }
+        };
+    }
+
+    private HttpRequest bearer(String token) {
+        return HttpRequest.newBuilder(uri("/api/protected"))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static Map<Operation, LatencyRecorder> newRecorders() {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+        return recorders;
+    }
+
+    /**
+     * Imprime el informe, lo guarda en CSV y devuelve los SLO incumplidos.
+     */
+    private List<String> report(Map<Operation, LatencyRecorder> results, double elapsedSeconds) throws IOException {
+        List<String> violations = new ArrayList<>();
+        List<String> rows = new ArrayList<>();
+        String threads = virtualThreads ? "virtual" : "platform";
+        rows.add("threads,operation,requests,throughput,p50_ms,p99_ms,p999_ms,errors");
+
+        System.out.printf(Locale.ROOT, "%n%-10s %10s %10s %9s %9s %9s %8s%n",
+                "operación", "peticiones", "req/s", "p50 ms", "p99 ms", "p999 ms", "errores");
+        long totalRequests = 0;
+        long totalErrors = 0;
+        for (Map.Entry<Operation, LatencyRecorder> entry : results.entrySet()) {
+            Operation operation = entry.getKey();
+            LatencyRecorder recorder = entry.getValue();
+            double throughput = recorder.count() / elapsedSeconds;
+            double p50 = recorder.percentileMillis(50);
+            double p99 = recorder.percentileMillis(99);
+            double p999 = recorder.percentileMillis(99.9);
+            totalRequests += recorder.count();
+            totalErrors += recorder.errors();
+
+            System.out.printf(Locale.ROOT, "%-10s %10d %10.1f %9.2f %9.2f %9.2f %8d%n",
+                    operation.key, recorder.count(), throughput, p50, p99, p999, recorder.errors());
+            rows.add(String.format(Locale.ROOT, "%s,%s,%d,%.1f,%.3f,%.3f,%.3f,%d",
+                    threads, operation.key, recorder.count(), throughput, p50, p99, p999, recorder.errors()));
+
+            long maxP99 = Long.getLong("loadtest.slo." + operation.key + ".p99-ms", operation.defaultP99Millis);
+            long maxP999 = Long.getLong("loadtest.slo." + operation.key + ".p999-ms", operation.defaultP999Millis);
+            if (p99 > maxP99) {
+                violations.add("%s: p99 %.2f ms > %d ms".formatted(operation.key, p99, maxP99));
+            }
+            if (p999 > maxP999) {
+                violations.add("%s: p999 %.2f ms > %d ms".formatted(operation.key, p999, maxP999));
+            }
+        }
+
+        double throughput = totalRequests / elapsedSeconds;
+        double errorRate = totalRequests == 0 ? 0 : (double) totalErrors / totalRequests;
+        System.out.printf(Locale.ROOT, "%-10s %10d %10.1f (tasa de errores %.4f, %d hilos, %d s, servidor con hilos %s)%n%n",
+                "total", totalRequests, throughput, errorRate, concurrency, durationSeconds,
+                virtualThreads ? "virtuales" : "de plataforma");
+
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.slo.max-error-rate", "0.001"));
+        double minThroughput = Double.parseDouble(System.getProperty("loadtest.slo.min-throughput", "0"));
+        if (totalRequests == 0) {
+            violations.add("no se ha completado ninguna petición");
+        }
+        if (errorRate > maxErrorRate) {
+            violations.add("tasa de errores %.4f > %.4f".formatted(errorRate, maxErrorRate));
+        }
+        if (throughput < minThroughput) {
+            violations.add("throughput %.1f req/s < %.1f req/s".formatted(throughput, minThroughput));
+        }
+
+        // Un fichero por modo de hilos, para que las dos ejecuciones se puedan comparar
+        Path csv = Path.of("target", "loadtest-report-" + threads + ".csv");
+        Files.createDirectories(csv.getParent());
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(csv))) {
+            rows.forEach(writer::println);
+        }
+        return violations;
+    }
+}
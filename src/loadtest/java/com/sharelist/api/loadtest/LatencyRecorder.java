@@ -0,0 +1,59 @@
+package com.sharelist.api.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencias de una operación, en nanosegundos. Cada hilo de carga tiene las suyas (sin sincronización)
+ * y al terminar se combinan con {@link #merge} para calcular los percentiles sobre todas las muestras.
+ */
+final class LatencyRecorder {
+
+    private long[] values = new long[1024];
+    private int size;
+    private long errors;
+
+    void record(long latencyNanos, boolean expectedStatus) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = latencyNanos;
+        if (!expectedStatus) {
+            errors++;
+        }
+    }
+
+    void merge(LatencyRecorder other) {
+        if (size + other.size > values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+        }
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+        errors += other.errors;
+    }
+
+    int count() {
+        return size;
+    }
+
+    long errors() {
+        return errors;
+    }
+
+    /**
+     * Ordena las muestras; hay que llamarlo una vez, tras combinar todos los hilos y antes de pedir percentiles.
+     */
+    void sort() {
+        Arrays.sort(values, 0, size);
+    }
+
+    /**
+     * Percentil (0-100) por el método del rango más cercano, en milisegundos.
+     */
+    double percentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * size);
+        return values[Math.max(0, Math.min(size, rank) - 1)] / 1_000_000.0;
+    }
+}
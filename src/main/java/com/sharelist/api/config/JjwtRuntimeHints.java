@@ -0,0 +1,47 @@
+package com.sharelist.api.config;
+
+import com.sharelist.api.repository.UserCredentials;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+/**
+ * Pistas para la imagen nativa (GraalVM) de lo que se carga por reflexión y que el análisis de AOT no puede ver.
+ *
+ * JJWT separa su API de la implementación: Jwts y Keys instancian las clases de jjwt-impl por nombre,
+ * y el serializador JSON (jjwt-jackson) y los códecs de compresión se descubren con ServiceLoader.
+ * Además, Hibernate crea la proyección UserCredentials invocando su constructor por reflexión.
+ */
+public class JjwtRuntimeHints implements RuntimeHintsRegistrar {
+
+    // Clases de jjwt-impl / jjwt-jackson instanciadas por nombre (io.jsonwebtoken.lang.Classes)
+    private static final String[] JJWT_REFLECTIVE_TYPES = {
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParser",
+            "io.jsonwebtoken.impl.DefaultClaims",
+            "io.jsonwebtoken.impl.DefaultHeader",
+            "io.jsonwebtoken.impl.DefaultJwsHeader",
+            "io.jsonwebtoken.impl.compression.DefaultCompressionCodecResolver",
+            "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+            "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+            "io.jsonwebtoken.impl.crypto.MacProvider",
+            "io.jsonwebtoken.impl.crypto.RsaProvider",
+            "io.jsonwebtoken.impl.crypto.EllipticCurveProvider",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : JJWT_REFLECTIVE_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        // Ficheros de ServiceLoader con los que JJWT encuentra el serializador y los códecs
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+
+        hints.reflection().registerType(UserCredentials.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+    }
+}
@@ -0,0 +1,58 @@
+package com.sharelist.api.config;
+
+import com.sharelist.api.security.BoundedTtlCache;
+import com.sharelist.api.security.CustomUserDetailsService;
+import com.sharelist.api.security.LoginRateLimiter;
+import com.sharelist.api.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+/**
+ * Configuración de métricas adicionales a las que Spring Boot Actuator registra por defecto.
+ *
+ * Las consultas a UserRepository ya se cuentan y se miden automáticamente en la métrica
+ * spring.data.repository.invocations (etiquetas repository y method).
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Expone los contadores de las cachés de autenticación (usuarios y tokens verificados).
+     */
+    @Bean
+    public MeterBinder authCacheMetrics(CustomUserDetailsService userDetailsService,
+                                        VerifiedTokenCache verifiedTokenCache) {
+        return registry -> {
+            bindCache(registry, "users", userDetailsService.getUserCache());
+            bindCache(registry, "verified-tokens", verifiedTokenCache.getCache());
+        };
+    }
+
+    /**
+     * Expone el número de buckets del limitador de intentos de login.
+     */
+    @Bean
+    public MeterBinder loginRateLimiterMetrics(LoginRateLimiter loginRateLimiter) {
+        return registry -> Gauge.builder("auth.rate-limit.buckets", loginRateLimiter, LoginRateLimiter::size)
+                .description("Buckets del limitador de intentos de login en memoria")
+                .register(registry);
+    }
+
+    private static void bindCache(MeterRegistry registry, String name, BoundedTtlCache<?, ?> cache) {
+        FunctionCounter.builder("auth.cache.requests", cache, BoundedTtlCache::hitCount)
+                .tags("cache", name, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("auth.cache.requests", cache, BoundedTtlCache::missCount)
+                .tags("cache", name, "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("auth.cache.evictions", cache, BoundedTtlCache::evictionCount)
+                .tag("cache", name)
+                .register(registry);
+        Gauge.builder("auth.cache.size", cache, BoundedTtlCache::size)
+                .tag("cache", name)
+                .register(registry);
+    }
+}
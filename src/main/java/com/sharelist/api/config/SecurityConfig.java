@@ -1,28 +1,58 @@
 package com.sharelist.api.config;
 
+import com.sharelist.api.security.Authorities;
+import com.sharelist.api.security.CustomUserDetailsService;
 import com.sharelist.api.security.JwtTokenFilter;
+import com.sharelist.api.security.PasswordHashingExecutor;
+import com.sharelist.api.security.PooledPasswordEncoder;
+import com.sharelist.api.security.PublicPathRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.util.Map;
 /**
  * Clase de configuración de seguridad para la aplicación.
  * Define qué endpoints están protegidos, el tipo de autenticación y qué filtros aplicar.
  */
 @Configuration
 @RequiredArgsConstructor
+@ImportRuntimeHints(JjwtRuntimeHints.class)
 public class SecurityConfig {
 
     // Filtro personalizado que validará el token JWT en cada petición
     private final JwtTokenFilter jwtTokenFilter;
 
+    // Rutas públicas (security.public-paths), compartidas con JwtTokenFilter
+    private final PublicPathRegistry publicPathRegistry;
+
+    // Pool en el que se calculan los hashes de las contraseñas
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    // Coste de BCrypt (log2 de las rondas). Cada punto más duplica el tiempo de cifrado
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    // Puerto del actuator (management.server.port). Si no se configura, el actuator va por el puerto público
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     /**
      * Configura la cadena de filtros de seguridad de Spring.
      * Desactiva CSRF, permite el acceso sin autenticación a algunos endpoints,
@@ -35,13 +65,24 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 // Define las reglas de autorización
                 .authorizeHttpRequests(auth -> auth
-                        // Endpoints públicos: no requieren autenticación
-                        .requestMatchers("/api/users/register", "/api/auth/login").permitAll()
+                        // Actuator en su propio puerto (red interna): Prometheus recoge las métricas sin token
+                        .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort).permitAll()
+                        // Endpoints públicos (registro, login, JWKS y salud): no requieren autenticación
+                        .requestMatchers(publicPathRegistry).permitAll()
+                        // Alta masiva: cada petición puede cifrar hasta 1000 contraseñas, sólo para cuentas de aprovisionamiento
+                        .requestMatchers(HttpMethod.POST, "/api/users/batch").hasAuthority(Authorities.PROVISIONING)
+                        // Deshabilitar usuarios: también sólo para cuentas de aprovisionamiento
+                        .requestMatchers(HttpMethod.POST, "/api/users/*/disable").hasAuthority(Authorities.PROVISIONING)
+                        // Introspección: revela usuario y permisos de tokens ajenos, sólo para el gateway
+                        .requestMatchers(HttpMethod.POST, "/api/auth/introspect").hasAuthority(Authorities.INTROSPECTION)
                         // Cualquier otra petición requiere autenticación
                         .anyRequest().authenticated()
                 )
                 // Desactiva el formulario de login por defecto de Spring Security
                 .formLogin(AbstractHttpConfigurer::disable)
+                // Sin token válido se responde 401 (por defecto Spring Security respondería 403)
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 // Añade el filtro JWT antes del filtro de autenticación por usuario y contraseña
                 .addFilterBefore(jwtTokenFilter, UsernamePasswordAuthenticationFilter.class);
 
@@ -49,12 +90,40 @@ public class SecurityConfig {
     }
 
     /**
-     * Bean que define el codificador de contraseñas usando BCrypt.
+     * Bean que define el codificador de contraseñas usando BCrypt con el coste configurado.
      * Se usará para almacenar contraseñas de forma segura.
+     *
+     * Se envuelve en un DelegatingPasswordEncoder: los hashes nuevos llevan el prefijo {bcrypt}
+     * y los antiguos (sin prefijo o con otro coste) se siguen aceptando y se actualizan
+     * de forma transparente cuando el usuario inicia sesión.
+     *
+     * Los hashes se calculan en el pool de cifrado ({@link PooledPasswordEncoder}); la consulta del usuario
+     * en el login y los INSERT/UPDATE del registro siguen en el hilo de la petición.
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        // Hashes guardados antes de usar prefijos: se comprueban con BCrypt
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new PooledPasswordEncoder(encoder, passwordHashingExecutor);
+    }
+
+    /**
+     * Proveedor de autenticación por usuario y contraseña.
+     * No oculta UsernameNotFoundException, así el login distingue "usuario inexistente" (404)
+     * de "credenciales inválidas" (401) sin tener que consultar antes el usuario por su cuenta.
+     * También actualiza los hashes antiguos tras un login correcto.
+     */
+    @Bean
+    public AuthenticationProvider authenticationProvider(CustomUserDetailsService userDetailsService) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setUserDetailsPasswordService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder());
+        provider.setHideUserNotFoundExceptions(false);
+        return provider;
     }
 
     /**
@@ -1,70 +1,210 @@
 package com.sharelist.api.controller;
 
+import com.sharelist.api.dto.ErrorResponseDTO;
 import com.sharelist.api.dto.LoginRequestDTO;
 import com.sharelist.api.dto.LoginResponseDTO;
-import com.sharelist.api.model.User;
-import com.sharelist.api.repository.UserRepository;
+import com.sharelist.api.dto.RefreshTokenRequestDTO;
+import com.sharelist.api.dto.TokenIntrospectionRequestDTO;
+import com.sharelist.api.dto.TokenIntrospectionResponseDTO;
+import com.sharelist.api.exception.ServiceOverloadedException;
+import com.sharelist.api.exception.TooManyRequestsException;
+import com.sharelist.api.metrics.AuthMetrics;
+import com.sharelist.api.security.ClientIpResolver;
+import com.sharelist.api.security.CustomUserDetailsService;
 import com.sharelist.api.security.JwtTokenProvider;
+import com.sharelist.api.security.LoginRateLimiter;
+import com.sharelist.api.security.RevocationStore;
+import com.sharelist.api.security.TokenIntrospector;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 /**
  * Controlador encargado del proceso de autenticación de usuarios.
- * Gestiona el inicio de sesión y la generación del token JWT.
+ * Gestiona el inicio de sesión, la renovación de tokens y el cierre de sesión.
  */
+@Slf4j
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
+// Cuerpos devueltos como ResponseEntity<?>: AOT no puede deducir su tipo para la imagen nativa
+@RegisterReflectionForBinding({LoginResponseDTO.class, ErrorResponseDTO.class})
 public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
-    private final UserRepository userRepository;
+    private final AuthMetrics authMetrics;
+    private final CustomUserDetailsService userDetailsService;
+    private final RevocationStore revocationStore;
+    private final LoginRateLimiter loginRateLimiter;
+    private final ClientIpResolver clientIpResolver;
+    private final TokenIntrospector tokenIntrospector;
 
     /**
      * Endpoint de inicio de sesión. Recibe las credenciales y devuelve un token JWT si son válidas.
+     * La consulta del usuario se hace en el hilo de la petición; sólo la comprobación de la contraseña (BCrypt)
+     * se ejecuta en el pool de cifrado ({@link com.sharelist.api.security.PooledPasswordEncoder}).
+     * Antes se comprueba el límite de intentos por IP y de fallos por IP y usuario, para que un ataque de
+     * fuerza bruta no consuma la CPU del cifrado.
      *
-     * @param dto Objeto que contiene el username y password del usuario.
+     * @param dto     Objeto que contiene el username y password del usuario.
+     * @param request Petición HTTP, de la que se obtiene la IP del cliente ({@link ClientIpResolver}).
      * @return Token JWT en caso de éxito o mensaje de error en caso de fallo.
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequestDTO dto) {
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequestDTO dto, HttpServletRequest request) {
+        long start = System.nanoTime();
+        String clientIp = clientIpResolver.resolve(request);
+        int status = 500;
         try {
-            // Validación previa de existencia del usuario (opcional pero clara)
-            User user = userRepository.findByUsername(dto.getUsername())
-                    .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+            loginRateLimiter.acquire(clientIp, dto.getUsername());
+            ResponseEntity<?> response = authenticate(dto, clientIp);
+            status = response.getStatusCode().value();
+            return response;
+        } catch (TooManyRequestsException e) {
+            status = 429;
+            throw e;
+        } catch (ServiceOverloadedException e) {
+            // Pool de cifrado lleno: 503 con Retry-After (GlobalExceptionHandler)
+            status = 503;
+            throw e;
+        } finally {
+            authMetrics.recordLogin(status, System.nanoTime() - start);
+        }
+    }
 
-            // Intenta autenticar con el AuthenticationManager de Spring Security
+    /**
+     * Autentica las credenciales y genera el token JWT. Los fallos cuentan para el límite de la IP con ese usuario.
+     */
+    private ResponseEntity<?> authenticate(LoginRequestDTO dto, String clientIp) {
+        try {
+            // Autentica con el AuthenticationManager de Spring Security. El usuario se carga una sola vez
+            // (CustomUserDetailsService) y devuelve su username, estado y permisos en el principal
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(dto.getUsername(), dto.getPassword())
             );
 
-            // Si la autenticación es exitosa, se genera el token JWT
-            String token = jwtTokenProvider.createToken(user.getUsername());
-
-            // Se devuelve el token en una respuesta estructurada
-            return ResponseEntity.ok(new LoginResponseDTO(token));
+            // Si la autenticación es exitosa, se genera el token JWT con los permisos del usuario
+            return ResponseEntity.ok(issueTokens((UserDetails) authentication.getPrincipal()));
 
+        } catch (UsernameNotFoundException e) {
+            // Si el usuario no existe
+            loginRateLimiter.recordFailure(clientIp, dto.getUsername());
+            return ResponseEntity.status(404)
+                    .body(new ErrorResponseDTO("Usuario no encontrado"));
         } catch (AuthenticationException e) {
             // Si las credenciales no son válidas
+            loginRateLimiter.recordFailure(clientIp, dto.getUsername());
             return ResponseEntity.status(401)
-                    .body(new ErrorResponse("Credenciales inválidas"));
+                    .body(new ErrorResponseDTO("Credenciales inválidas"));
+        } catch (ServiceOverloadedException e) {
+            // El pool de cifrado ha rechazado la comprobación de la contraseña: no es un fallo del usuario
+            throw e;
         } catch (RuntimeException e) {
-            // Si el usuario no existe u otro error controlado
-            return ResponseEntity.status(404)
-                    .body(new ErrorResponse(e.getMessage()));
+            // Cualquier otro error (por ejemplo, de la base de datos): 500 sin detalles, que sólo van al log
+            log.error("Error inesperado en el login", e);
+            return ResponseEntity.status(500)
+                    .body(new ErrorResponseDTO("Ha ocurrido un error inesperado"));
+        }
+    }
+
+    /**
+     * Endpoint de renovación. Cambia un refresh token válido por un nuevo access token y un nuevo refresh token.
+     * El refresh token usado queda revocado (rotación): si se presenta otra vez, se rechaza.
+     * Se vuelve a cargar el usuario, así que un usuario deshabilitado no puede renovar.
+     *
+     * @param dto Objeto que contiene el refresh token.
+     * @return Nuevos tokens o 401 si el refresh token no es válido.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshTokenRequestDTO dto) {
+        Optional<Claims> verified = jwtTokenProvider.verify(dto.getRefreshToken());
+        if (verified.isEmpty() || !jwtTokenProvider.isRefreshToken(verified.get())
+                || revocationStore.isRevoked(verified.get())) {
+            return ResponseEntity.status(401).body(new ErrorResponseDTO("Refresh token inválido"));
+        }
+
+        // Rotación: sólo la primera petición que revoca el token puede usarlo
+        Claims claims = verified.get();
+        if (!revocationStore.revoke(claims.getId(), claims.getExpiration().getTime())) {
+            return ResponseEntity.status(401).body(new ErrorResponseDTO("Refresh token inválido"));
+        }
+
+        try {
+            UserDetails user = userDetailsService.loadCachedUser(claims.getSubject());
+            if (!user.isEnabled()) {
+                return ResponseEntity.status(401).body(new ErrorResponseDTO("Usuario deshabilitado"));
+            }
+            return ResponseEntity.ok(issueTokens(user));
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(401).body(new ErrorResponseDTO("Refresh token inválido"));
+        }
+    }
+
+    /**
+     * Endpoint de cierre de sesión. Revoca el access token con el que se llama y, si se envía,
+     * el refresh token del mismo usuario, de modo que ninguno de los dos vuelve a aceptarse.
+     *
+     * @param authHeader Cabecera Authorization con el access token actual.
+     * @param dto        Objeto opcional con el refresh token a revocar.
+     * @return 204 sin contenido, o 401 si la cabecera no lleva un token Bearer.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+                                    @RequestBody(required = false) RefreshTokenRequestDTO dto) {
+        if (!authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(new ErrorResponseDTO("Token de acceso inválido"));
         }
+        // La petición ya pasó por el filtro JWT, así que el access token es válido
+        Optional<Claims> accessClaims = jwtTokenProvider.verify(authHeader.substring("Bearer ".length()));
+        accessClaims.ifPresent(claims -> {
+            revocationStore.revoke(claims.getId(), claims.getExpiration().getTime());
+
+            if (dto != null && dto.getRefreshToken() != null) {
+                jwtTokenProvider.verify(dto.getRefreshToken())
+                        .filter(jwtTokenProvider::isRefreshToken)
+                        .filter(refresh -> claims.getSubject().equals(refresh.getSubject()))
+                        .ifPresent(refresh -> revocationStore.revoke(refresh.getId(), refresh.getExpiration().getTime()));
+            }
+        });
+        return ResponseEntity.noContent().build();
     }
 
     /**
-     * DTO interno usado para respuestas de error simples.
+     * Endpoint de introspección (requiere el permiso INTROSPECTION). Comprueba un lote de tokens de una sola vez,
+     * para que un gateway valide todas las llamadas de un fan-out con una única petición.
+     * Los lotes grandes se verifican en paralelo en un pool acotado.
      *
-     * @param error Mensaje de error.
+     * @param dto Objeto con los tokens a comprobar.
+     * @return Un resultado por token (active, sub, exp, authorities), en el mismo orden.
+     */
+    @PostMapping("/introspect")
+    public CompletableFuture<ResponseEntity<TokenIntrospectionResponseDTO>> introspect(
+            @Valid @RequestBody TokenIntrospectionRequestDTO dto) {
+        return tokenIntrospector.introspect(dto.getTokens())
+                .thenApply(results -> ResponseEntity.ok(new TokenIntrospectionResponseDTO(results)));
+    }
+
+    /**
+     * Emite un access token de vida corta y un refresh token para el usuario.
      */
-    record ErrorResponse(String error) {}
+    private LoginResponseDTO issueTokens(UserDetails user) {
+        return new LoginResponseDTO(
+                jwtTokenProvider.createToken(user),
+                jwtTokenProvider.createRefreshToken(user.getUsername()));
+    }
 }
@@ -0,0 +1,45 @@
+package com.sharelist.api.controller;
+
+import com.sharelist.api.security.JwtKeyRing;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controlador REST que publica las claves públicas de firma en formato JWKS (RFC 7517).
+ * Permite que otros servicios verifiquen los tokens localmente, sin llamar a esta API en cada petición.
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    // Tiempo que los clientes pueden cachear el JWKS antes de volver a pedirlo
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic();
+
+    private final JwtKeyRing keyRing;
+
+    /**
+     * Endpoint GET público con las claves vigentes (la activa y las retiradas en periodo de gracia).
+     * Responde con ETag: si el cliente ya tiene la versión actual (If-None-Match) se devuelve 304 sin cuerpo.
+     *
+     * @return JWKS con la lista de claves, vacía si los tokens se firman con HS256
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, List<Map<String, Object>>>> getJwks(WebRequest request) {
+        String etag = keyRing.jwksEtag();
+        if (request.checkNotModified(etag)) {
+            return null;   // Spring responde 304 Not Modified
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CACHE_CONTROL)
+                .body(Map.of("keys", keyRing.jwks()));
+    }
+}
@@ -1,19 +1,30 @@
 package com.sharelist.api.controller;
 
+import com.sharelist.api.dto.BatchRegistrationDTO;
+import com.sharelist.api.dto.BatchRegistrationResponseDTO;
+import com.sharelist.api.dto.ChangePasswordDTO;
+import com.sharelist.api.dto.ErrorResponseDTO;
 import com.sharelist.api.dto.UserRegistrationDTO;
+import com.sharelist.api.dto.UserResponseDTO;
 import com.sharelist.api.model.User;
 import com.sharelist.api.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
 /**
  * Controlador REST encargado de gestionar las operaciones relacionadas con usuarios.
- * En este caso, permite registrar nuevos usuarios.
+ * Permite registrar nuevos usuarios (de uno en uno o en bloque), cambiar la propia contraseña
+ * y deshabilitar usuarios.
  */
 @RestController
 @RequestMapping("/api/users")
 @RequiredArgsConstructor       // Genera automáticamente el constructor con los campos finales requeridos
+// Cuerpos devueltos como ResponseEntity<?>: AOT no puede deducir su tipo para la imagen nativa
+@RegisterReflectionForBinding(ErrorResponseDTO.class)
 public class UserController {
 
     // Inyección del servicio que contiene la lógica de registro de usuarios
@@ -23,15 +34,67 @@ public class UserController {
      * Endpoint para registrar un nuevo usuario.
      *
      * @param dto Objeto con los datos necesarios para el registro (username, password, email, fullName)
-     * @return ResponseEntity con el usuario creado y status 200 OK
+     * @return ResponseEntity con los datos públicos del usuario creado (sin la contraseña) y status 200 OK
+     * Sólo el cifrado de la contraseña (BCrypt) se ejecuta en el pool de cifrado; el INSERT, en el hilo de la petición.
      * Validaciones:
      * - Se utiliza @Valid para activar las validaciones definidas en el DTO.
      * - Si hay errores de validación, se gestionan automáticamente por el GlobalExceptionHandler.
      */
     @PostMapping("/register")
-    public ResponseEntity<User> register(@Valid @RequestBody UserRegistrationDTO dto) {
+    public ResponseEntity<UserResponseDTO> register(@Valid @RequestBody UserRegistrationDTO dto) {
         // Delegamos la lógica de registro al servicio correspondiente
         User user = userService.register(dto);
-        return ResponseEntity.ok(user);   // Devolvemos el usuario registrado como respuesta
+        return ResponseEntity.ok(UserResponseDTO.from(user));   // Devolvemos el usuario registrado, sin la contraseña
+    }
+
+    /**
+     * Endpoint para registrar varios usuarios en una sola petición (requiere autenticación).
+     *
+     * @param dto Lista de usuarios a registrar
+     * @return ResponseEntity con el número de usuarios creados y status 200 OK
+     * Si algún username o email ya existe no se crea ninguno y se responde 409.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchRegistrationResponseDTO> registerBatch(@Valid @RequestBody BatchRegistrationDTO dto) {
+        int created = userService.registerAll(dto.getUsers());
+        return ResponseEntity.ok(new BatchRegistrationResponseDTO(created));
+    }
+
+    /**
+     * Endpoint para que el usuario autenticado cambie su contraseña. Cierra todas sus sesiones:
+     * los tokens emitidos hasta ahora, incluido el de esta petición, dejan de aceptarse.
+     *
+     * @param dto            Contraseña actual y nueva contraseña
+     * @param authentication Usuario autenticado por el filtro JWT
+     * @return 204 sin contenido, o 403 si la contraseña actual no es correcta
+     */
+    @PostMapping("/me/password")
+    public ResponseEntity<?> changePassword(@Valid @RequestBody ChangePasswordDTO dto, Authentication authentication) {
+        try {
+            if (!userService.changePassword(authentication.getName(), dto.getCurrentPassword(), dto.getNewPassword())) {
+                return ResponseEntity.status(403).body(new ErrorResponseDTO("La contraseña actual no es correcta"));
+            }
+            return ResponseEntity.noContent().build();
+        } catch (UsernameNotFoundException e) {
+            // El usuario se ha borrado después de emitir el token
+            return ResponseEntity.status(404).body(new ErrorResponseDTO("Usuario no encontrado"));
+        }
+    }
+
+    /**
+     * Endpoint para deshabilitar un usuario (requiere el permiso PROVISIONING).
+     * Sus tokens emitidos hasta ahora dejan de aceptarse y ya no puede iniciar sesión.
+     *
+     * @param username Nombre del usuario a deshabilitar
+     * @return 204 sin contenido, o 404 si el usuario no existe
+     */
+    @PostMapping("/{username}/disable")
+    public ResponseEntity<?> disable(@PathVariable String username) {
+        try {
+            userService.disable(username);
+            return ResponseEntity.noContent().build();
+        } catch (UsernameNotFoundException e) {
+            return ResponseEntity.status(404).body(new ErrorResponseDTO("Usuario no encontrado"));
+        }
     }
 }
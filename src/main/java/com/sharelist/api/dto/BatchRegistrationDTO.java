@@ -0,0 +1,19 @@
+package com.sharelist.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+/**
+ * DTO que representa una petición de registro masivo de usuarios.
+ * Cada elemento se valida con las mismas reglas que un registro individual.
+ */
+@Data
+public class BatchRegistrationDTO {
+
+    @NotEmpty(message = "Debe incluir al menos un usuario")
+    @Size(max = 1000, message = "No se pueden registrar más de 1000 usuarios por petición")
+    private List<@Valid UserRegistrationDTO> users;
+}
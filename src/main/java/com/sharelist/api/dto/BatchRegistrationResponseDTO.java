@@ -0,0 +1,13 @@
+package com.sharelist.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+/**
+ * DTO que representa la respuesta de un registro masivo.
+ * Contiene el número de usuarios creados.
+ */
+@Data
+@AllArgsConstructor
+public class BatchRegistrationResponseDTO {
+    private int created;
+}
@@ -0,0 +1,16 @@
+package com.sharelist.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+/**
+ * DTO con los datos de un cambio de contraseña: la actual, para confirmar que la cambia su dueño, y la nueva.
+ */
+@Data
+public class ChangePasswordDTO {
+
+    @NotBlank(message = "La contraseña actual es obligatoria")
+    private String currentPassword;
+
+    @NotBlank(message = "La nueva contraseña es obligatoria")
+    private String newPassword;
+}
@@ -0,0 +1,19 @@
+package com.sharelist.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+/**
+ * Cuerpo común de todas las respuestas de error: {"error": "..."} y, en los errores de validación,
+ * "fields" con el mensaje de cada campo inválido.
+ *
+ * @param error  Mensaje de error.
+ * @param fields Mensaje de error por campo; se omite si no hay.
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record ErrorResponseDTO(String error, Map<String, String> fields) {
+
+    public ErrorResponseDTO(String error) {
+        this(error, null);
+    }
+}
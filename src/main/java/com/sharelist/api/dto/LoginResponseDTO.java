@@ -3,12 +3,12 @@ package com.sharelist.api.dto;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 /**
- * DTO que representa la respuesta devuelta tras un inicio de sesión exitoso.
- * Contiene el token JWT generado para el usuario autenticado.
+ * DTO que representa la respuesta devuelta tras un inicio de sesión o una renovación exitosa.
+ * Contiene el token JWT de acceso (de vida corta) y el refresh token con el que obtener uno nuevo.
  */
 @Data
 @AllArgsConstructor
 public class LoginResponseDTO {
     private String token;
+    private String refreshToken;
 }
-
@@ -0,0 +1,14 @@
+package com.sharelist.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+/**
+ * DTO que representa una petición con un refresh token
+ * (renovación del access token o cierre de sesión).
+ */
+@Data
+public class RefreshTokenRequestDTO {
+
+    @NotBlank(message = "El refresh token es obligatorio")
+    private String refreshToken;
+}
@@ -0,0 +1,32 @@
+package com.sharelist.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+/**
+ * DTO con el resultado de la introspección de un token, con los nombres de campo de RFC 7662.
+ * Si el token no es válido sólo se devuelve "active": false.
+ */
+@Data
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenIntrospectionDTO {
+
+    // Si el token es un access token válido, no expirado ni revocado
+    private boolean active;
+
+    // Usuario del token
+    private String sub;
+
+    // Expiración en segundos desde epoch
+    private Long exp;
+
+    // Permisos incluidos en el token
+    private List<String> authorities;
+
+    public static TokenIntrospectionDTO inactive() {
+        return new TokenIntrospectionDTO(false, null, null, null);
+    }
+}
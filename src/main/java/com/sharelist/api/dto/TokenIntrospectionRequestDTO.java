@@ -0,0 +1,19 @@
+package com.sharelist.api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+/**
+ * DTO que representa una petición de introspección de tokens.
+ * Contiene los tokens (sin el prefijo "Bearer ") a comprobar de una sola vez.
+ */
+@Data
+public class TokenIntrospectionRequestDTO {
+
+    @NotEmpty(message = "Debe incluir al menos un token")
+    @Size(max = 500, message = "No se pueden comprobar más de 500 tokens por petición")
+    private List<@NotBlank(message = "El token no puede estar vacío") String> tokens;
+}
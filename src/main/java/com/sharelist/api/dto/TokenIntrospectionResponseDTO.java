@@ -0,0 +1,15 @@
+package com.sharelist.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+/**
+ * DTO que representa la respuesta de una introspección de tokens.
+ * Contiene un resultado por token, en el mismo orden que la petición.
+ */
+@Data
+@AllArgsConstructor
+public class TokenIntrospectionResponseDTO {
+    private List<TokenIntrospectionDTO> results;
+}
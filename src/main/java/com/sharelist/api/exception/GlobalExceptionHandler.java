@@ -1,5 +1,8 @@
 package com.sharelist.api.exception;
 
+import com.sharelist.api.dto.ErrorResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -13,7 +16,9 @@ import java.util.Map;
  * Clase que maneja de forma centralizada las excepciones lanzadas por los controladores.
  *
  * Anotada con @RestControllerAdvice para que se aplique globalmente en todo el proyecto.
+ * Todas las respuestas de error usan el mismo cuerpo, {@link ErrorResponseDTO}.
  */
+@Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -24,8 +29,8 @@ public class GlobalExceptionHandler {
      * @return respuesta HTTP con código 409 (CONFLICT) y el mensaje del error.
      */
     @ExceptionHandler(UserAlreadyExistsException.class)
-    public ResponseEntity<String> handleUserAlreadyExists(UserAlreadyExistsException ex) {
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    public ResponseEntity<ErrorResponseDTO> handleUserAlreadyExists(UserAlreadyExistsException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new ErrorResponseDTO(ex.getMessage()));
     }
 
 
@@ -33,17 +38,43 @@ public class GlobalExceptionHandler {
      * Maneja errores de validación cuando los datos enviados no cumplen las restricciones.
      *
      * @param ex excepción lanzada automáticamente por Spring al fallar una validación con @Valid/@NotBlank.
-     * @return mapa con nombre del campo y mensaje de error, y un código 400 (BAD REQUEST).
+     * @return mensaje de error y mapa con nombre del campo y mensaje de error, y un código 400 (BAD REQUEST).
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<Map<String, String>> handleValidationErrors(MethodArgumentNotValidException ex) {
+    public ResponseEntity<ErrorResponseDTO> handleValidationErrors(MethodArgumentNotValidException ex) {
         Map<String, String> errors = new HashMap<>();
 
         for (FieldError fieldError : ex.getBindingResult().getFieldErrors()) {
             errors.put(fieldError.getField(), fieldError.getDefaultMessage());
         }
 
-        return ResponseEntity.badRequest().body(errors);
+        return ResponseEntity.badRequest().body(new ErrorResponseDTO("Datos inválidos", errors));
+    }
+
+    /**
+     * Maneja los casos en los que el servidor está saturado y rechaza la petición sin encolarla.
+     *
+     * @param ex excepción lanzada al no poder aceptar más trabajo (por ejemplo, cifrado de contraseñas).
+     * @return respuesta HTTP con código 503 (SERVICE UNAVAILABLE) y la cabecera Retry-After.
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponseDTO> handleServiceOverloaded(ServiceOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponseDTO(ex.getMessage()));
+    }
+
+    /**
+     * Maneja los casos en los que un cliente supera el número de intentos permitidos.
+     *
+     * @param ex excepción lanzada por el limitador de intentos (por ejemplo, de inicio de sesión).
+     * @return respuesta HTTP con código 429 (TOO MANY REQUESTS) y la cabecera Retry-After.
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponseDTO> handleTooManyRequests(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponseDTO(ex.getMessage()));
     }
 
     /**
@@ -51,10 +82,12 @@ public class GlobalExceptionHandler {
      *
      * @param ex la excepción lanzada.
      * @return respuesta con código 500 (INTERNAL SERVER ERROR) y un mensaje genérico.
+     *         El detalle sólo va al log: el mensaje de la excepción puede incluir SQL, nombres de tablas o datos.
      */
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<String> handleGenericException(Exception ex) {
+    public ResponseEntity<ErrorResponseDTO> handleGenericException(Exception ex) {
+        log.error("Error inesperado", ex);
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Ha ocurrido un error inesperado: " + ex.getMessage());
+                .body(new ErrorResponseDTO("Ha ocurrido un error inesperado"));
     }
 }
@@ -0,0 +1,20 @@
+package com.sharelist.api.exception;
+
+import lombok.Getter;
+
+/**
+ * Excepción que se lanza cuando el servidor no puede aceptar más trabajo de un tipo concreto
+ * (por ejemplo, cifrado de contraseñas) y prefiere rechazar la petición en lugar de encolarla.
+ * Se traduce en una respuesta 503 con la cabecera Retry-After.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    // Segundos que el cliente debería esperar antes de reintentar
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
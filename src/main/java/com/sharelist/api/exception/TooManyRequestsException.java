@@ -0,0 +1,19 @@
+package com.sharelist.api.exception;
+
+import lombok.Getter;
+
+/**
+ * Excepción que se lanza cuando un cliente supera el número de intentos permitidos
+ * (por ejemplo, de inicio de sesión). Se traduce en una respuesta 429 con la cabecera Retry-After.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+
+    // Segundos que el cliente debería esperar antes de reintentar
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,107 @@
+package com.sharelist.api.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas del camino de autenticación (login, emisión y verificación de tokens).
+ *
+ * Los timers publican histogramas de percentiles, de modo que en Prometheus se pueden calcular
+ * p50/p99 agregando todas las instancias. Los timers del camino caliente se registran una sola vez
+ * al arrancar para que medir no requiera búsquedas en el registro en cada petición.
+ */
+@Component
+public class AuthMetrics {
+
+    /**
+     * Resultado de la verificación de un token, usado como etiqueta "result".
+     */
+    public enum VerificationResult {
+        VALID, EXPIRED, BAD_SIGNATURE, MALFORMED, UNSUPPORTED, INVALID
+    }
+
+    // Códigos que puede devolver el login; sus timers se registran al arrancar
+    private static final int[] LOGIN_STATUSES = {200, 401, 404, 429, 500, 503};
+
+    private final MeterRegistry registry;
+    private final Timer tokenCreation;
+    // Timers del login indexados por código HTTP (sin búsquedas en el registro ni boxing en cada login)
+    private final Timer[] loginByStatus = new Timer[600];
+    private final Map<VerificationResult, Timer> tokenVerification = new EnumMap<>(VerificationResult.class);
+    private final Map<VerificationResult, Counter> tokenRejection = new EnumMap<>(VerificationResult.class);
+
+    public AuthMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.tokenCreation = Timer.builder("auth.token.creation")
+                .description("Tiempo de emisión de un token JWT")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        for (VerificationResult result : VerificationResult.values()) {
+            tokenVerification.put(result, Timer.builder("auth.token.verification")
+                    .description("Tiempo de verificación de un token JWT, por resultado")
+                    .tag("result", result.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(registry));
+            tokenRejection.put(result, Counter.builder("auth.token.rejected")
+                    .description("Tokens rechazados por la comprobación previa, sin verificar la firma, por motivo")
+                    .tag("result", result.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+
+        for (int status : LOGIN_STATUSES) {
+            loginByStatus[status] = loginTimer(status);
+        }
+    }
+
+    /**
+     * Registra la duración de un login según el código HTTP devuelto (200, 401, 404...).
+     *
+     * @param status      código HTTP de la respuesta
+     * @param durationNanos duración total, incluida la espera en el pool de cifrado
+     */
+    public void recordLogin(int status, long durationNanos) {
+        Timer timer = status >= 0 && status < loginByStatus.length ? loginByStatus[status] : null;
+        if (timer == null) {
+            // Código no previsto: el registro devuelve el mismo timer si ya se creó antes
+            timer = loginTimer(status);
+        }
+        timer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer loginTimer(int status) {
+        return Timer.builder("auth.login")
+                .description("Tiempo de respuesta del login, por resultado")
+                .tag("outcome", String.valueOf(status))
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Registra la duración de la emisión de un token.
+     */
+    public void recordTokenCreation(long durationNanos) {
+        tokenCreation.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra la duración de una verificación de token y su resultado.
+     */
+    public void recordTokenVerification(VerificationResult result, long durationNanos) {
+        tokenVerification.get(result).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Cuenta un token rechazado por la comprobación previa, antes de verificar su firma.
+     */
+    public void recordTokenRejection(VerificationResult result) {
+        tokenRejection.get(result).increment();
+    }
+}
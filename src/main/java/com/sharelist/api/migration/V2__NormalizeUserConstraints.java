@@ -0,0 +1,108 @@
+package com.sharelist.api.migration;
+
+import com.sharelist.api.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * Deja las restricciones únicas de la tabla users con los nombres que espera el registro
+ * (User.USERNAME_UNIQUE_CONSTRAINT y User.EMAIL_UNIQUE_CONSTRAINT).
+ *
+ * Las bases de datos creadas antes con ddl-auto se marcan como versión 1 sin ejecutar V1: el username tiene
+ * una restricción única con el nombre generado por Hibernate y el email no tiene ninguna. Esta migración
+ * renombra la primera y crea la segunda. En una base de datos creada por V1 no hace nada.
+ *
+ * Es una migración Java (no SQL) porque depende del esquema existente y MySQL no admite
+ * "ADD CONSTRAINT IF NOT EXISTS". Se registra como bean: Spring Boot se la pasa a Flyway.
+ * Si hay emails repetidos falla sin cambiar nada: hay que corregirlos a mano antes de arrancar.
+ */
+@Slf4j
+@Component
+public class V2__NormalizeUserConstraints extends BaseJavaMigration {
+
+    private static final String FIND_UNIQUE_CONSTRAINT_SQL = """
+            SELECT tc.CONSTRAINT_NAME
+            FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc
+            JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE kcu
+              ON kcu.CONSTRAINT_NAME = tc.CONSTRAINT_NAME
+             AND kcu.TABLE_SCHEMA = tc.TABLE_SCHEMA
+             AND kcu.TABLE_NAME = tc.TABLE_NAME
+            WHERE tc.CONSTRAINT_TYPE = 'UNIQUE'
+              AND tc.TABLE_SCHEMA = ?
+              AND UPPER(tc.TABLE_NAME) = 'USERS'
+            GROUP BY tc.CONSTRAINT_NAME
+            HAVING COUNT(*) = 1 AND MAX(UPPER(kcu.COLUMN_NAME)) = ?
+            """;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+        // En MySQL el esquema es la base de datos (catálogo JDBC)
+        String schema = mysql ? connection.getCatalog() : connection.getSchema();
+
+        String username = findUniqueConstraint(connection, schema, "username");
+        String email = findUniqueConstraint(connection, schema, "email");
+
+        // Se comprueba antes de tocar nada: en MySQL cada ALTER TABLE se confirma por su cuenta
+        if (username == null) {
+            checkNoDuplicates(connection, "username");
+        }
+        if (email == null) {
+            checkNoDuplicates(connection, "email");
+        }
+
+        normalize(connection, mysql, "username", username, User.USERNAME_UNIQUE_CONSTRAINT);
+        normalize(connection, mysql, "email", email, User.EMAIL_UNIQUE_CONSTRAINT);
+    }
+
+    private static void normalize(Connection connection, boolean mysql, String column, String current,
+                                  String expectedName) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            if (current == null) {
+                log.info("Creando la restricción única {} sobre users.{}", expectedName, column);
+                statement.execute("ALTER TABLE users ADD CONSTRAINT " + expectedName + " UNIQUE (" + column + ")");
+            } else if (!current.equalsIgnoreCase(expectedName)) {
+                log.info("Renombrando la restricción única {} de users.{} a {}", current, column, expectedName);
+                // En MySQL una restricción única es un índice; en H2 se renombra la restricción
+                statement.execute(mysql
+                        ? "ALTER TABLE users RENAME INDEX `" + current + "` TO " + expectedName
+                        : "ALTER TABLE users RENAME CONSTRAINT \"" + current + "\" TO " + expectedName);
+            }
+        }
+    }
+
+    private static String findUniqueConstraint(Connection connection, String schema, String column)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(FIND_UNIQUE_CONSTRAINT_SQL)) {
+            statement.setString(1, schema);
+            statement.setString(2, column.toUpperCase(Locale.ROOT));
+            try (ResultSet rows = statement.executeQuery()) {
+                return rows.next() ? rows.getString(1) : null;
+            }
+        }
+    }
+
+    private static void checkNoDuplicates(Connection connection, String column) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM (SELECT " + column + " FROM users WHERE "
+                     + column + " IS NOT NULL GROUP BY " + column + " HAVING COUNT(*) > 1) duplicated")) {
+            rows.next();
+            long duplicated = rows.getLong(1);
+            if (duplicated > 0) {
+                throw new FlywayException("Hay " + duplicated + " valores repetidos en users." + column
+                        + ": corrígelos antes de arrancar para poder crear la restricción única");
+            }
+        }
+    }
+}
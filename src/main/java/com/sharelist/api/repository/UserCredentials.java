@@ -0,0 +1,12 @@
+package com.sharelist.api.repository;
+
+/**
+ * Proyección con los únicos datos de un usuario que necesita la autenticación.
+ * No es una entidad: Hibernate no la guarda en el contexto de persistencia ni la revisa al hacer flush.
+ *
+ * @param username nombre de usuario
+ * @param password hash de la contraseña
+ * @param enabled  si el usuario puede iniciar sesión
+ */
+public record UserCredentials(String username, String password, boolean enabled) {
+}
@@ -2,6 +2,10 @@ package com.sharelist.api.repository;
 
 import com.sharelist.api.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 /**
@@ -18,18 +22,35 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
 
     /**
-     * Verifica si ya existe un usuario registrado con el mismo nombre de usuario.
-     * Usado para evitar registros duplicados.
-     * @param username nombre de usuario a verificar.
-     * @return true si ya existe, false en caso contrario.
+     * Busca sólo las credenciales de un usuario (username, contraseña y estado), para la autenticación.
+     * Selecciona tres columnas en lugar de la entidad completa y se ejecuta en una transacción de sólo lectura.
+     * @param username nombre de usuario a buscar.
+     * @return un Optional con las credenciales, o vacío si no existe.
+     */
+    @Transactional(readOnly = true)
+    @Query("select new com.sharelist.api.repository.UserCredentials(u.username, u.password, u.enabled) "
+            + "from User u where u.username = :username")
+    Optional<UserCredentials> findCredentialsByUsername(@Param("username") String username);
+
+    /**
+     * Cambia el hash de la contraseña con un único UPDATE, sin cargar la entidad
+     * (no pisa un cambio concurrente de otro campo, como enabled).
+     * @param username nombre de usuario.
+     * @param password nuevo hash de la contraseña.
+     * @return el número de filas actualizadas (0 si el usuario no existe).
      */
-    boolean existsByUsername(String username);
+    @Transactional
+    @Modifying
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
 
     /**
-     * Verifica si ya existe un usuario registrado con el mismo email.
-     * También usado para validar unicidad de registros.
-     * @param email email a verificar.
-     * @return true si ya existe, false si no.
+     * Deshabilita un usuario con un único UPDATE, sin cargar la entidad.
+     * @param username nombre de usuario.
+     * @return el número de filas actualizadas (0 si el usuario no existe).
      */
-    boolean existsByEmail(String email);
+    @Transactional
+    @Modifying
+    @Query("update User u set u.enabled = false where u.username = :username")
+    int disableByUsername(@Param("username") String username);
 }
@@ -0,0 +1,22 @@
+package com.sharelist.api.security;
+
+/**
+ * Cambio en el estado de autenticación que debe conocer el resto de nodos del clúster.
+ *
+ * @param type  tipo de cambio
+ * @param key   sobre qué se aplica (jti, username o clave de rate limit, según el tipo)
+ * @param value dato asociado en epoch millis (expiración, instante de revocación o fin del bloqueo); 0 si no aplica
+ */
+public record AuthStateEvent(Type type, String key, long value) {
+
+    public enum Type {
+        /** Un token concreto revocado hasta su expiración (key = jti, value = expiración). */
+        TOKEN_REVOKED,
+        /** Todos los tokens de un usuario emitidos antes de un instante (key = username, value = instante). */
+        USER_SESSIONS_REVOKED,
+        /** El usuario ha cambiado y debe eliminarse de las cachés (key = username). */
+        USER_INVALIDATED,
+        /** Una clave de rate limit bloqueada hasta un instante (key = clave, value = fin del bloqueo). */
+        RATE_LIMITED
+    }
+}
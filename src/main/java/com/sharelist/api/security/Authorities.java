@@ -0,0 +1,19 @@
+package com.sharelist.api.security;
+
+/**
+ * Permisos que se asignan a los usuarios y que exigen algunos endpoints (ver SecurityConfig).
+ */
+public final class Authorities {
+
+    // Todos los usuarios registrados
+    public static final String USER = "USER";
+
+    // Alta masiva de usuarios (POST /api/users/batch)
+    public static final String PROVISIONING = "PROVISIONING";
+
+    // Introspección de tokens de terceros (POST /api/auth/introspect), pensada para el gateway
+    public static final String INTROSPECTION = "INTROSPECTION";
+
+    private Authorities() {
+    }
+}
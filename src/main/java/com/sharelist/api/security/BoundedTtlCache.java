@@ -0,0 +1,140 @@
+package com.sharelist.api.security;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché en memoria acotada por tamaño y con expiración por entrada.
+ * Las lecturas no bloquean (ConcurrentHashMap) y se llevan contadores de aciertos,
+ * fallos y expulsiones para poder medir la efectividad de la caché.
+ *
+ * @param <K> tipo de la clave
+ * @param <V> tipo del valor
+ */
+public class BoundedTtlCache<K, V> {
+
+    // Valor almacenado junto con el instante (epoch millis) a partir del cual deja de ser válido
+    private record Entry<V>(V value, long expiresAt) {}
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    // Reloj con el que se comparan los instantes de expiración
+    private final Clock clock;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize número máximo de entradas que se mantienen en memoria
+     */
+    public BoundedTtlCache(int maxSize) {
+        this(maxSize, Clock.systemUTC());
+    }
+
+    /**
+     * @param maxSize número máximo de entradas que se mantienen en memoria
+     * @param clock   reloj con el que se decide si una entrada ha expirado
+     */
+    public BoundedTtlCache(int maxSize, Clock clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize debe ser mayor que 0");
+        }
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Devuelve el valor asociado a la clave si existe y no ha expirado.
+     *
+     * @param key clave a buscar
+     * @return el valor, o null si no está o ha expirado
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt() <= clock.millis()) {
+            // Expirada: la quitamos sólo si nadie la ha reemplazado mientras tanto
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    /**
+     * Guarda un valor hasta el instante indicado. Si la caché está llena,
+     * primero se eliminan las entradas expiradas y, si no basta, otras entradas cualesquiera.
+     *
+     * @param key       clave
+     * @param value     valor
+     * @param expiresAt instante (epoch millis) en el que la entrada deja de ser válida
+     */
+    public void put(K key, V value, long expiresAt) {
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            makeRoom();
+        }
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    /**
+     * Elimina la entrada asociada a la clave, si existe.
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Vacía la caché por completo.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Libera espacio: elimina las entradas expiradas y, si la caché sigue llena,
+     * expulsa entradas hasta dejarla al 90% de su capacidad para no repetir el barrido en cada inserción.
+     */
+    private void makeRoom() {
+        long now = clock.millis();
+        for (Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            if (it.next().getValue().expiresAt() <= now) {
+                it.remove();
+                evictions.increment();
+            }
+        }
+
+        int target = maxSize - Math.max(1, maxSize / 10);
+        for (Iterator<K> it = entries.keySet().iterator(); it.hasNext() && entries.size() > target; ) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+}
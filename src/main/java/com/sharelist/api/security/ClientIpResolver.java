@@ -0,0 +1,84 @@
+package com.sharelist.api.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Obtiene la IP del cliente para el límite de intentos de login.
+ *
+ * Por defecto es la dirección de la conexión. Detrás de un proxy o balanceador esa dirección es la del proxy
+ * (todos los clientes compartirían un mismo límite), así que con security.rate-limit.trusted-proxies se indica
+ * de qué proxies se acepta la cabecera X-Forwarded-For. Se toma la última dirección de la cabecera que no es
+ * de un proxy de confianza: las anteriores las escribe el propio cliente y no sirven para limitarlo.
+ */
+@Component
+public class ClientIpResolver {
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    // Sólo se comparan con los proxies los literales IPv4/IPv6: un nombre obligaría a resolverlo por DNS
+    private static final Pattern IP_LITERAL = Pattern.compile("[0-9a-fA-F.:]+");
+
+    // Proxies de confianza (IP o rango CIDR), separados por comas. Vacío: no se lee X-Forwarded-For
+    @Value("${security.rate-limit.trusted-proxies:}")
+    private List<String> trustedProxies = List.of();
+
+    private List<IpAddressMatcher> proxyMatchers;
+
+    @PostConstruct
+    protected void init() {
+        proxyMatchers = trustedProxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    /**
+     * IP del cliente que hace la petición.
+     *
+     * @param request petición HTTP
+     * @return la dirección de la conexión o, si llega de un proxy de confianza, la del cliente según X-Forwarded-For
+     */
+    public String resolve(HttpServletRequest request) {
+        String clientIp = request.getRemoteAddr();
+        if (proxyMatchers.isEmpty() || !isTrustedProxy(clientIp)) {
+            return clientIp;
+        }
+        String forwardedFor = request.getHeader(FORWARDED_FOR);
+        if (forwardedFor == null) {
+            return clientIp;
+        }
+        // De derecha a izquierda: cada proxy de confianza añade al final la dirección de quien le llamó
+        String[] hops = forwardedFor.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            clientIp = hop;
+            if (!isTrustedProxy(hop)) {
+                break;
+            }
+        }
+        return clientIp;
+    }
+
+    private boolean isTrustedProxy(String address) {
+        if (!IP_LITERAL.matcher(address).matches()) {
+            return false;
+        }
+        for (IpAddressMatcher matcher : proxyMatchers) {
+            if (matcher.matches(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,45 +1,186 @@
 package com.sharelist.api.security;
 
-import com.sharelist.api.model.User;
+import com.sharelist.api.repository.UserCredentials;
 import com.sharelist.api.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Servicio personalizado que implementa UserDetailsService,
  * necesario para que Spring Security pueda cargar los datos del usuario desde la base de datos.
+ * También implementa UserDetailsPasswordService para que Spring Security pueda actualizar
+ * los hashes antiguos (otro coste o sin prefijo) tras un login correcto.
+ * Los usuarios cargados se guardan en una caché acotada y con expiración para no consultar
+ * la base de datos en cada petición autenticada; las invalidaciones se difunden al resto de nodos
+ * mediante {@link SharedAuthState}.
  */
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     // Inyección del repositorio de usuarios
     private final UserRepository userRepository;
 
+    // Difunde las invalidaciones de la caché al resto de nodos
+    private final SharedAuthState sharedAuthState;
+
+    // Permite desactivar la caché (por ejemplo, para depurar)
+    @Value("${security.user-cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    // Número máximo de usuarios en caché
+    @Value("${security.user-cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    // Tiempo que un usuario permanece en caché, en milisegundos
+    @Value("${security.user-cache.ttl:30000}")
+    private long cacheTtlInMilliseconds;
+
+    // Usuarios con permiso de alta masiva (PROVISIONING), separados por comas
+    @Value("${security.authorities.provisioning:}")
+    private List<String> provisioningUsers = List.of();
+
+    // Usuarios que pueden comprobar tokens de otros (INTROSPECTION), normalmente la cuenta del gateway
+    @Value("${security.authorities.introspection:}")
+    private List<String> introspectionUsers = List.of();
+
+    // Reloj con el que caducan los usuarios en caché; reemplazable en los tests
+    private Clock clock = Clock.systemUTC();
+
+    private BoundedTtlCache<String, UserDetails> userCache;
+
+    /**
+     * Crea la caché con la configuración inyectada.
+     */
+    @PostConstruct
+    protected void init() {
+        userCache = new BoundedTtlCache<>(cacheMaxSize, clock);
+        sharedAuthState.subscribe(event -> {
+            if (event.type() == AuthStateEvent.Type.USER_INVALIDATED) {
+                userCache.invalidate(event.key());
+            }
+        });
+    }
+
     /**
      * Este método es llamado automáticamente por Spring Security durante la autenticación.
      * Busca al usuario en la base de datos y construye un objeto UserDetails si lo encuentra.
      *
+     * Con la caché activa devuelve una copia del usuario en caché: tras el login, Spring Security borra
+     * las credenciales del objeto que recibe. Fuera del login se usa {@link #loadCachedUser(String)}, sin copia.
+     *
      * @param username Nombre de usuario proporcionado en el login
      * @return UserDetails con la información del usuario para el sistema de seguridad
      * @throws UsernameNotFoundException si no se encuentra el usuario
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        // Buscamos al usuario en la base de datos (por username)
-        User user = userRepository.findByUsername(username)
+        UserDetails userDetails = loadCachedUser(username);
+        return cacheEnabled
+                ? org.springframework.security.core.userdetails.User.withUserDetails(userDetails).build()
+                : userDetails;
+    }
+
+    /**
+     * Carga el usuario sin copiarlo: devuelve la misma instancia que guarda la caché, con su colección
+     * de permisos. La usan el filtro JWT y el refresh, que sólo leen el usuario; nunca debe pasarse a
+     * un AuthenticationManager, que borraría sus credenciales.
+     *
+     * @param username nombre de usuario
+     * @return el usuario en caché o, si no está, el recién cargado de la base de datos
+     * @throws UsernameNotFoundException si no se encuentra el usuario
+     */
+    public UserDetails loadCachedUser(String username) throws UsernameNotFoundException {
+        if (cacheEnabled) {
+            UserDetails cached = userCache.get(username);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Buscamos sólo las credenciales del usuario (por username), sin cargar la entidad completa
+        UserCredentials user = userRepository.findCredentialsByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + username));
 
-        // Devolvemos un objeto UserDetails construido desde nuestra entidad User
-        return org.springframework.security.core.userdetails.User
-                .withUsername(user.getUsername())
-                .password(user.getPassword())
-                .authorities("USER")                  // rol o permisos (se puede mejorar en el futuro)
+        // Devolvemos un objeto UserDetails construido desde las credenciales
+        UserDetails userDetails = org.springframework.security.core.userdetails.User
+                .withUsername(user.username())
+                .password(user.password())
+                .authorities(authoritiesFor(user.username()))
                 .accountExpired(false)                // cuenta no expirada
                 .accountLocked(false)                 // cuenta no bloqueada
                 .credentialsExpired(false)            // credenciales válidas
-                .disabled(!user.isEnabled())          // si está deshabilitado en BD → desactivado aquí
+                .disabled(!user.enabled())          // si está deshabilitado en BD → desactivado aquí
                 .build();
+
+        if (cacheEnabled) {
+            userCache.put(username, userDetails, clock.millis() + cacheTtlInMilliseconds);
+        }
+        return userDetails;
+    }
+
+    /**
+     * Permisos del usuario: USER para todos, más los asignados por configuración (security.authorities.*).
+     * Son las mismas instancias que reciben los tokens en modo stateless ({@link GrantedAuthorities}).
+     */
+    private List<GrantedAuthority> authoritiesFor(String username) {
+        List<String> authorities = new ArrayList<>(3);
+        authorities.add(Authorities.USER);
+        if (provisioningUsers.contains(username)) {
+            authorities.add(Authorities.PROVISIONING);
+        }
+        if (introspectionUsers.contains(username)) {
+            authorities.add(Authorities.INTROSPECTION);
+        }
+        return GrantedAuthorities.fromNames(authorities);
+    }
+
+    /**
+     * Llamado por Spring Security tras un login correcto cuando el hash guardado debe actualizarse
+     * (por ejemplo, si se ha subido el coste de BCrypt). Guarda el nuevo hash e invalida la caché.
+     *
+     * @param user        usuario autenticado
+     * @param newPassword nuevo hash de la contraseña, ya cifrado
+     * @return el usuario con la contraseña actualizada
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.findByUsername(user.getUsername()).ifPresent(entity -> {
+            entity.setPassword(newPassword);
+            userRepository.save(entity);
+        });
+        evictUser(user.getUsername());
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
+
+    /**
+     * Elimina un usuario de la caché. Debe llamarse siempre que cambie su estado
+     * (alta, deshabilitado, cambio de contraseña) para que el cambio se aplique de inmediato.
+     * La invalidación se publica también para el resto de nodos.
+     *
+     * @param username nombre de usuario a invalidar
+     */
+    public void evictUser(String username) {
+        userCache.invalidate(username);
+        sharedAuthState.publish(new AuthStateEvent(AuthStateEvent.Type.USER_INVALIDATED, username, 0));
+    }
+
+    /**
+     * Caché de usuarios, expuesta para consultar sus contadores (aciertos, fallos, expulsiones).
+     */
+    public BoundedTtlCache<String, UserDetails> getUserCache() {
+        return userCache;
     }
 }
@@ -0,0 +1,85 @@
+package com.sharelist.api.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Listas de permisos compartidas entre peticiones: los tokens de usuarios con los mismos roles devuelven
+ * la misma lista inmodificable, con instancias de GrantedAuthority únicas por nombre.
+ * Así leer los permisos de un token no crea ningún objeto una vez vista esa combinación de roles.
+ *
+ * Sólo se llama con claims de tokens ya verificados (firmados por nosotros), así que las combinaciones
+ * son pocas; aun así se acota el tamaño y, si se llena, se crean listas nuevas sin guardarlas.
+ */
+final class GrantedAuthorities {
+
+    private static final int MAX_ENTRIES = 1024;
+
+    // Por la cadena del claim compacto ("ROLE_A ROLE_B") o por la lista del claim "roles"
+    private static final ConcurrentHashMap<Object, List<GrantedAuthority>> LISTS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private GrantedAuthorities() {
+    }
+
+    /**
+     * Permisos de una cadena separada por espacios (claim compacto).
+     */
+    static List<GrantedAuthority> fromCompact(String names) {
+        List<GrantedAuthority> cached = LISTS.get(names);
+        if (cached != null) {
+            return cached;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        if (!names.isEmpty()) {
+            for (String name : names.split(" ")) {
+                authorities.add(authority(name));
+            }
+        }
+        return remember(names, List.copyOf(authorities));
+    }
+
+    /**
+     * Permisos de una lista de nombres (claim "roles").
+     */
+    static List<GrantedAuthority> fromNames(Collection<?> names) {
+        List<GrantedAuthority> cached = LISTS.get(names);
+        if (cached != null) {
+            return cached;
+        }
+        List<GrantedAuthority> authorities = new ArrayList<>(names.size());
+        List<String> key = new ArrayList<>(names.size());
+        for (Object name : names) {
+            String value = String.valueOf(name);
+            key.add(value);
+            authorities.add(authority(value));
+        }
+        return remember(List.copyOf(key), List.copyOf(authorities));
+    }
+
+    private static GrantedAuthority authority(String name) {
+        GrantedAuthority authority = AUTHORITIES.get(name);
+        if (authority != null) {
+            return authority;
+        }
+        authority = new SimpleGrantedAuthority(name);
+        if (AUTHORITIES.size() < MAX_ENTRIES) {
+            GrantedAuthority previous = AUTHORITIES.putIfAbsent(name, authority);
+            return previous != null ? previous : authority;
+        }
+        return authority;
+    }
+
+    private static List<GrantedAuthority> remember(Object key, List<GrantedAuthority> authorities) {
+        if (LISTS.size() >= MAX_ENTRIES) {
+            return authorities;
+        }
+        List<GrantedAuthority> previous = LISTS.putIfAbsent(key, authorities);
+        return previous != null ? previous : authorities;
+    }
+}
@@ -0,0 +1,87 @@
+package com.sharelist.api.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+
+/**
+ * Autenticación creada por {@link JwtTokenFilter} a partir de un token ya verificado.
+ *
+ * No copia nada: guarda la misma colección de permisos que recibe (la del usuario en caché
+ * o la compartida de {@link GrantedAuthorities}) y no incluye detalles de la petición (IP, sesión), que
+ * con tokens sin estado no se usan. Sustituye a UsernamePasswordAuthenticationToken más WebAuthenticationDetails,
+ * que se creaban en cada petición autenticada.
+ *
+ * El principal es el UserDetails cargado de la base de datos o, en modo stateless, el nombre de usuario.
+ *
+ * Sus datos son inmutables. Como pide el contrato de {@link Authentication}, se puede marcar como no autenticada
+ * con setAuthenticated(false), pero no volver a marcarla como autenticada.
+ */
+public final class JwtAuthentication implements Authentication {
+
+    private final Object principal;
+    private final String name;
+    private final Collection<? extends GrantedAuthority> authorities;
+    private volatile boolean authenticated = true;
+
+    /**
+     * @param principal   usuario autenticado (UserDetails o nombre de usuario)
+     * @param name        nombre de usuario
+     * @param authorities permisos; debe ser una colección inmodificable, no se copia
+     */
+    public JwtAuthentication(Object principal, String name, Collection<? extends GrantedAuthority> authorities) {
+        this.principal = principal;
+        this.name = name;
+        this.authorities = authorities;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    /**
+     * El token ya se ha verificado y no se guarda ninguna credencial.
+     */
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return authenticated;
+    }
+
+    /**
+     * Sólo admite false: una autenticación se crea a partir de un token verificado, no se marca a mano.
+     */
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        if (isAuthenticated) {
+            throw new IllegalArgumentException("JwtAuthentication sólo se autentica al crearla a partir de un token");
+        }
+        authenticated = false;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "JwtAuthentication[name=" + name + ", authorities=" + authorities + "]";
+    }
+}
@@ -0,0 +1,305 @@
+package com.sharelist.api.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Anillo de claves asimétricas (RS256 o ES256) para firmar y verificar tokens.
+ *
+ * Cada clave se identifica con un "kid" que viaja en la cabecera del token, de modo que se puede
+ * verificar con la clave que lo firmó aunque ya no sea la activa. Las claves se publican en
+ * formato JWKS para que otros servicios verifiquen los tokens localmente, sin llamar a esta API.
+ *
+ * Las claves se cargan de un almacén PKCS12 (un alias por clave) o, si no se configura, se generan
+ * en memoria y se rotan periódicamente. Una clave retirada se sigue aceptando durante el periodo
+ * de gracia, que debe ser al menos la duración de los tokens.
+ *
+ * Las claves generadas en memoria son de cada instancia, así que sólo valen con una (security.cluster.mode=local):
+ * con varias, cada una rechazaría los tokens firmados por las demás y el arranque falla si no hay almacén.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing {
+
+    /**
+     * Clave del anillo.
+     *
+     * @param kid       identificador publicado en la cabecera del token y en el JWKS
+     * @param keyPair   par de claves; la privada sólo se usa mientras la clave está activa
+     * @param retiredAt instante (epoch millis) en que dejó de ser la activa; Long.MAX_VALUE si no se ha retirado
+     */
+    public record SigningKey(String kid, KeyPair keyPair, long retiredAt) {
+
+        SigningKey retire(long now) {
+            return new SigningKey(kid, keyPair, now);
+        }
+    }
+
+    // Algoritmo de firma: HS256 (clave secreta compartida), RS256 o ES256
+    @Value("${security.jwt.algorithm:HS256}")
+    private SignatureAlgorithm algorithm;
+
+    // Cada cuánto se genera una nueva clave activa (sólo con claves generadas en memoria)
+    @Value("${security.jwt.key-rotation-interval:86400000}")
+    private long rotationIntervalInMilliseconds;
+
+    // Tiempo que una clave retirada se sigue aceptando para verificar. Por defecto (-1), la vida del token
+    // más largo (normalmente el refresh token): si fuera menor, los tokens firmados antes de una rotación
+    // dejarían de verificarse antes de expirar y /api/auth/refresh respondería 401
+    @Value("${security.jwt.key-grace-period:-1}")
+    private long gracePeriodInMilliseconds;
+
+    @Value("${security.jwt.expire-length}")
+    private long validityInMilliseconds;
+
+    @Value("${security.jwt.refresh-expire-length:604800000}")
+    private long refreshValidityInMilliseconds;
+
+    // Reloj de las rotaciones y del periodo de gracia; si el contexto declara un bean Clock (los tests), se usa ese
+    @Autowired(required = false)
+    private Clock clock = Clock.systemUTC();
+
+    // Almacén PKCS12 opcional con las claves (un alias por clave, el alias es el kid)
+    @Value("${security.jwt.keystore.location:#{null}}")
+    private Resource keystoreLocation;
+
+    @Value("${security.jwt.keystore.password:}")
+    private String keystorePassword;
+
+    // Alias de la clave con la que se firma; por defecto, el último del almacén
+    @Value("${security.jwt.keystore.active-alias:}")
+    private String activeAlias;
+
+    // Modo de despliegue (security.cluster.mode): con varias instancias las claves deben venir del almacén
+    @Value("${security.cluster.mode:local}")
+    private String clusterMode = "local";
+
+    // Estado publicado de forma atómica: se reemplaza entero en cada rotación
+    private volatile State state;
+
+    private record State(SigningKey active, Map<String, SigningKey> keysById, List<Map<String, Object>> jwks,
+                         String etag, long activatedAt) {
+    }
+
+    @PostConstruct
+    protected void init() {
+        long maxTokenLifetime = Math.max(validityInMilliseconds, refreshValidityInMilliseconds);
+        if (gracePeriodInMilliseconds < 0) {
+            gracePeriodInMilliseconds = maxTokenLifetime;
+        } else if (gracePeriodInMilliseconds < maxTokenLifetime) {
+            log.warn("security.jwt.key-grace-period ({} ms) es menor que la vida de los tokens ({} ms): "
+                    + "los firmados antes de una rotación dejarán de aceptarse antes de expirar",
+                    gracePeriodInMilliseconds, maxTokenLifetime);
+        }
+        if (!isAsymmetric()) {
+            state = new State(null, Map.of(), List.of(), etag(Map.of()), clock.millis());
+            return;
+        }
+        if (algorithm != SignatureAlgorithm.RS256 && algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalStateException("Algoritmo JWT no soportado: " + algorithm);
+        }
+        if (keystoreLocation == null && !"local".equals(clusterMode)) {
+            throw new IllegalStateException("security.jwt.algorithm=" + algorithm + " con security.cluster.mode="
+                    + clusterMode + " requiere security.jwt.keystore.location: cada instancia generaría sus propias "
+                    + "claves y rechazaría los tokens firmados por las demás");
+        }
+        state = keystoreLocation != null ? loadKeystore() : publish(generateKey(), List.of());
+    }
+
+    /**
+     * Indica si los tokens se firman con claves asimétricas (RS256/ES256) en lugar de la clave secreta HMAC.
+     */
+    public boolean isAsymmetric() {
+        return algorithm.isRsa() || algorithm.isEllipticCurve();
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Clave con la que se firman los tokens nuevos. Si ha pasado el intervalo de rotación,
+     * se genera una nueva y la anterior queda retirada (pero válida para verificar durante el periodo de gracia).
+     */
+    public SigningKey activeKey() {
+        if (!isAsymmetric()) {
+            throw new IllegalStateException("El anillo de claves sólo se usa con RS256 o ES256");
+        }
+        State current = state;
+        if (keystoreLocation == null
+                && clock.millis() - current.activatedAt() >= rotationIntervalInMilliseconds) {
+            current = rotate(current);
+        }
+        return current.active();
+    }
+
+    /**
+     * Busca la clave pública con la que verificar un token a partir de su kid.
+     *
+     * @param kid identificador de la cabecera del token
+     * @return la clave pública, o null si el kid es desconocido o la clave ya superó el periodo de gracia
+     */
+    public PublicKey verificationKey(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        SigningKey signingKey = state.keysById().get(kid);
+        if (signingKey == null
+                || clock.millis() - signingKey.retiredAt() > gracePeriodInMilliseconds) {
+            return null;
+        }
+        return signingKey.keyPair().getPublic();
+    }
+
+    /**
+     * Claves públicas en formato JWK (RFC 7517), listas para servirse como JWKS.
+     */
+    public List<Map<String, Object>> jwks() {
+        return state.jwks();
+    }
+
+    /**
+     * Identificador de la versión actual del JWKS; cambia cada vez que cambian las claves publicadas.
+     */
+    public String jwksEtag() {
+        return state.etag();
+    }
+
+    private synchronized State rotate(State expected) {
+        // Otro hilo puede haber rotado ya mientras esperábamos el bloqueo
+        if (state != expected) {
+            return state;
+        }
+        long now = clock.millis();
+        List<SigningKey> retained = new ArrayList<>();
+        retained.add(expected.active().retire(now));
+        for (SigningKey key : expected.keysById().values()) {
+            if (key != expected.active() && now - key.retiredAt() <= gracePeriodInMilliseconds) {
+                retained.add(key);
+            }
+        }
+        state = publish(generateKey(), retained);
+        return state;
+    }
+
+    private State publish(SigningKey active, List<SigningKey> retired) {
+        Map<String, SigningKey> keysById = new LinkedHashMap<>();
+        retired.forEach(key -> keysById.put(key.kid(), key));
+        keysById.put(active.kid(), active);
+
+        List<Map<String, Object>> jwks = keysById.values().stream()
+                .map(key -> toJwk(key.kid(), key.keyPair().getPublic()))
+                .toList();
+        return new State(active, Collections.unmodifiableMap(keysById), jwks, etag(keysById),
+                clock.millis());
+    }
+
+    private SigningKey generateKey() {
+        try {
+            KeyPairGenerator generator;
+            if (algorithm.isRsa()) {
+                generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+            } else {
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            }
+            return new SigningKey(UUID.randomUUID().toString(), generator.generateKeyPair(), Long.MAX_VALUE);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se ha podido generar la clave de firma " + algorithm, e);
+        }
+    }
+
+    private State loadKeystore() {
+        char[] password = keystorePassword.toCharArray();
+        try (InputStream in = keystoreLocation.getInputStream()) {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(in, password);
+
+            List<SigningKey> keys = new ArrayList<>();
+            for (String alias : Collections.list(keyStore.aliases())) {
+                if (!keyStore.isKeyEntry(alias)) {
+                    continue;
+                }
+                PrivateKey privateKey = (PrivateKey) keyStore.getKey(alias, password);
+                PublicKey publicKey = keyStore.getCertificate(alias).getPublicKey();
+                keys.add(new SigningKey(alias, new KeyPair(publicKey, privateKey), Long.MAX_VALUE));
+            }
+            if (keys.isEmpty()) {
+                throw new IllegalStateException("El almacén de claves no contiene ninguna clave privada");
+            }
+
+            SigningKey active = keys.stream()
+                    .filter(key -> key.kid().equals(activeAlias))
+                    .findFirst()
+                    .orElse(keys.get(keys.size() - 1));
+            keys.remove(active);
+            return publish(active, keys);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("No se ha podido cargar el almacén de claves JWT", e);
+        }
+    }
+
+    private Map<String, Object> toJwk(String kid, PublicKey publicKey) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        jwk.put("kid", kid);
+        jwk.put("use", "sig");
+        jwk.put("alg", algorithm.getValue());
+        if (publicKey instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", base64Url(rsa.getModulus(), 0));
+            jwk.put("e", base64Url(rsa.getPublicExponent(), 0));
+        } else if (publicKey instanceof ECPublicKey ec) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64Url(ec.getW().getAffineX(), 32));
+            jwk.put("y", base64Url(ec.getW().getAffineY(), 32));
+        } else {
+            throw new IllegalStateException("Tipo de clave no soportado: " + publicKey.getAlgorithm());
+        }
+        return Collections.unmodifiableMap(jwk);
+    }
+
+    /**
+     * Codifica un entero sin signo en base64url (sin relleno), con la longitud fija indicada si es mayor que 0.
+     */
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        // toByteArray añade un byte 0 inicial cuando el bit de mayor peso es 1 (signo)
+        int offset = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+        int size = bytes.length - offset;
+        byte[] unsigned = new byte[Math.max(size, length)];
+        System.arraycopy(bytes, offset, unsigned, unsigned.length - size, size);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(unsigned);
+    }
+
+    private static String etag(Map<String, SigningKey> keysById) {
+        return "\"" + Integer.toHexString(String.join(",", keysById.keySet()).hashCode()) + "\"";
+    }
+}
@@ -1,31 +1,65 @@
 package com.sharelist.api.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
 /**
  * Filtro personalizado que intercepta cada petición HTTP una sola vez (OncePerRequestFilter)
  * para verificar si contiene un JWT válido en la cabecera Authorization.
  */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtTokenFilter extends OncePerRequestFilter {
 
+    // Respuesta a los tokens descartados por la comprobación previa (RFC 6750)
+    private static final String INVALID_TOKEN_CHALLENGE = "Bearer error=\"invalid_token\"";
+
     private final JwtTokenProvider jwtTokenProvider;
     private final CustomUserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RevocationStore revocationStore;
+    private final PublicPathRegistry publicPathRegistry;
+    private final JwtTokenPrecheck tokenPrecheck;
+
+    // Guarda la autenticación en la propia petición para que siga disponible en los despachos asíncronos
+    private final SecurityContextRepository securityContextRepository = new RequestAttributeSecurityContextRepository();
+
+    // Si está activo, la autenticación se construye sólo con los claims del token, sin consultar la base de datos
+    @Value("${security.jwt.stateless:false}")
+    private boolean stateless;
+
+    // Fracción de peticiones (0.0 - 1.0) de las que se registran los tiempos de cada etapa. 0 = desactivado
+    @Value("${security.jwt.filter-timing.sample-rate:0.0}")
+    private double timingSampleRate;
+
+    /**
+     * Las rutas públicas (registro, login...) no pasan por el filtro: no se lee ni se verifica el token.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return publicPathRegistry.matches(request);
+    }
 
     /**
-     * Método principal del filtro. Se ejecuta en cada petición y verifica el JWT si es necesario.
+     * Método principal del filtro. Se ejecuta en cada petición no pública y verifica el JWT si es necesario.
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -33,50 +67,161 @@ public class JwtTokenFilter extends OncePerRequestFilter {
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        String path = request.getRequestURI();
-        System.out.println("Intercepted request to path: " + path);
+        // Sólo se miden tiempos en las peticiones muestreadas; en el resto no se llama a System.nanoTime
+        StageTimings timings = sampleTimings();
 
-        // Ignoramos validación para rutas públicas de registro y login
-        if (path.startsWith("/api/users/register") || path.startsWith("/api/auth/login")) {
-            System.out.println("Public endpoint, skipping JWT validation");
-            filterChain.doFilter(request, response);
-            return;
-        }
+        String path = request.getRequestURI();
 
         // Obtenemos la cabecera Authorization
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
 
         // Si no está o no comienza con "Bearer ", continuamos sin autenticar
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            System.out.println("Missing or invalid Authorization header");
+            log.trace("Petición a {} sin cabecera Authorization Bearer", path);
             filterChain.doFilter(request, response);
             return;
         }
 
         // Extraemos el token quitando el prefijo "Bearer "
         final String token = authHeader.substring(7);
-        final String username = jwtTokenProvider.getUsername(token);
-        System.out.println("Token detected, username extracted: " + username);
+        if (timings != null) {
+            timings.headerParsed();
+        }
+
+        // Los tokens que no pueden ser válidos se rechazan con 401 sin calcular ningún hash ni firma
+        JwtTokenPrecheck.Result precheck = tokenPrecheck.check(token);
+        if (precheck != JwtTokenPrecheck.Result.OK) {
+            log.debug("Token JWT rechazado ({}) en petición a {}", precheck, path);
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, INVALID_TOKEN_CHALLENGE);
+            return;
+        }
+
+        // Si el token ya se verificó antes, reutilizamos sus claims; si no, lo parseamos y verificamos una única vez
+        Claims claims = verifiedTokenCache.get(token);
+        if (claims == null) {
+            Optional<Claims> verified = jwtTokenProvider.verify(token);
+            if (verified.isEmpty()) {
+                log.debug("Token JWT inválido o expirado en petición a {}", path);
+                filterChain.doFilter(request, response);
+                return;
+            }
+            claims = verified.get();
+            verifiedTokenCache.put(token, claims);
+        }
+        if (timings != null) {
+            timings.tokenVerified();
+        }
+
+        // Los refresh tokens no sirven como access token, y los tokens revocados se ignoran aunque sigan en caché
+        if (jwtTokenProvider.isRefreshToken(claims) || revocationStore.isRevoked(claims)) {
+            log.debug("Token JWT revocado o de refresco en petición a {}", path);
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final String username = claims.getSubject();
 
         // Si el usuario no está aún autenticado y el token es válido
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = userDetailsService.loadUserByUsername(username);
-
-            if (jwtTokenProvider.validateToken(token)) {
-                System.out.println("Token is valid. Setting authentication.");
-                // Creamos un objeto de autenticación con los datos del usuario
-                var authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                // Establecemos el usuario autenticado en el contexto de seguridad
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            } else {
-                System.out.println("Token is invalid.");
+        SecurityContext context = SecurityContextHolder.getContext();
+        if (username != null && context.getAuthentication() == null) {
+            JwtAuthentication authentication = stateless
+                    ? authenticationFromClaims(claims)
+                    : authenticationFromDatabase(username);
+            if (timings != null) {
+                timings.userLoaded();
             }
+
+            if (authentication == null) {
+                log.debug("Token JWT de un usuario deshabilitado en petición a {}", path);
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            // Establecemos el usuario autenticado en el contexto de seguridad
+            context.setAuthentication(authentication);
+            securityContextRepository.saveContext(context, request, response);
+        }
+
+        if (timings != null) {
+            timings.log(path);
         }
 
         // Continuamos con la cadena de filtros
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Decide si esta petición se mide. Devuelve null (sin coste adicional) si el muestreo está
+     * desactivado, si el log DEBUG no está activo o si la petición no cae en la muestra.
+     */
+    private StageTimings sampleTimings() {
+        if (timingSampleRate <= 0.0 || !log.isDebugEnabled()) {
+            return null;
+        }
+        if (timingSampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= timingSampleRate) {
+            return null;
+        }
+        return new StageTimings();
+    }
+
+    /**
+     * Construye la autenticación a partir de los claims del token (modo stateless), sin crear un UserDetails:
+     * el principal es el nombre de usuario y los permisos son la lista compartida de {@link GrantedAuthorities}.
+     *
+     * @return la autenticación, o null si el usuario estaba deshabilitado al emitir el token
+     */
+    private JwtAuthentication authenticationFromClaims(Claims claims) {
+        if (!jwtTokenProvider.isEnabled(claims)) {
+            return null;
+        }
+        String username = claims.getSubject();
+        return new JwtAuthentication(username, username, jwtTokenProvider.getAuthorities(claims));
+    }
+
+    /**
+     * Construye la autenticación con el usuario de la base de datos (normalmente, de la caché de usuarios).
+     * Se reutilizan la instancia en caché y su colección de permisos, sin copiarlos
+     * ({@link CustomUserDetailsService#loadCachedUser(String)}).
+     *
+     * @return la autenticación, o null si el usuario está deshabilitado
+     */
+    private JwtAuthentication authenticationFromDatabase(String username) {
+        UserDetails userDetails = userDetailsService.loadCachedUser(username);
+        if (!userDetails.isEnabled()) {
+            return null;
+        }
+        return new JwtAuthentication(userDetails, userDetails.getUsername(), userDetails.getAuthorities());
+    }
+
+    /**
+     * Tiempos de cada etapa del filtro para una petición muestreada, en nanosegundos.
+     */
+    private static final class StageTimings {
+
+        private final long start = System.nanoTime();
+        private long headerParsed;
+        private long tokenVerified;
+        private long userLoaded;
+
+        void headerParsed() {
+            headerParsed = System.nanoTime();
+        }
+
+        void tokenVerified() {
+            tokenVerified = System.nanoTime();
+        }
+
+        void userLoaded() {
+            userLoaded = System.nanoTime();
+        }
+
+        void log(String path) {
+            log.debug("Tiempos del filtro JWT para {} (ns): cabecera={}, verificación={}, carga de usuario={}",
+                    path,
+                    headerParsed - start,
+                    tokenVerified - headerParsed,
+                    userLoaded == 0 ? 0 : userLoaded - tokenVerified);
+        }
+    }
 }
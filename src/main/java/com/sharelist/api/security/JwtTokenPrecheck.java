@@ -0,0 +1,248 @@
+package com.sharelist.api.security;
+
+import com.sharelist.api.metrics.AuthMetrics;
+import com.sharelist.api.metrics.AuthMetrics.VerificationResult;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Comprobación barata de un token antes de cualquier operación criptográfica (HMAC, RSA, ECDSA, SHA-256).
+ *
+ * Rechaza sin lanzar excepciones los tokens que no pueden ser válidos: demasiado largos, sin la forma
+ * "cabecera.payload.firma" en base64url, con un "alg" distinto del configurado o con un "exp" ya pasado.
+ * Sólo reserva un array del tamaño de la cabecera/payload decodificados; el JSON se recorre sin parsearlo.
+ *
+ * No sustituye a la verificación: un token que la supera puede seguir siendo inválido (firma, revocación...).
+ */
+@Component
+@RequiredArgsConstructor
+public class JwtTokenPrecheck {
+
+    /**
+     * Resultado de la comprobación.
+     */
+    public enum Result {
+        OK, TOO_LONG, MALFORMED, UNSUPPORTED_ALGORITHM, EXPIRED
+    }
+
+    // Valor de cada carácter base64url, -1 si no pertenece al alfabeto
+    private static final byte[] BASE64URL = new byte[128];
+
+    static {
+        Arrays.fill(BASE64URL, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64URL[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    private static final byte[] ALG_KEY = "alg".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] EXP_KEY = "exp".getBytes(StandardCharsets.US_ASCII);
+
+    private final JwtKeyRing keyRing;
+    private final AuthMetrics authMetrics;
+
+    // Longitud máxima de un token; los nuestros rondan los 300-600 caracteres según el algoritmo
+    @Value("${security.jwt.max-token-length:4096}")
+    private int maxTokenLength;
+
+    // Único "alg" aceptado: el configurado en security.jwt.algorithm
+    private byte[] expectedAlgorithm;
+
+    @PostConstruct
+    protected void init() {
+        expectedAlgorithm = keyRing.getAlgorithm().getValue().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Comprueba el token y cuenta los rechazos en la métrica auth.token.rejected.
+     *
+     * @param token token sin el prefijo "Bearer "
+     * @return OK si puede ser válido y debe verificarse; en otro caso, el motivo del rechazo
+     */
+    public Result check(String token) {
+        Result result = evaluate(token, System.currentTimeMillis());
+        if (result != Result.OK) {
+            authMetrics.recordTokenRejection(switch (result) {
+                case UNSUPPORTED_ALGORITHM -> VerificationResult.UNSUPPORTED;
+                case EXPIRED -> VerificationResult.EXPIRED;
+                default -> VerificationResult.MALFORMED;
+            });
+        }
+        return result;
+    }
+
+    Result evaluate(String token, long nowMillis) {
+        int length = token.length();
+        if (length > maxTokenLength) {
+            return Result.TOO_LONG;
+        }
+
+        // Una sola pasada: posición de los dos puntos y alfabeto base64url
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return Result.MALFORMED;
+                }
+            } else if (c >= 128 || BASE64URL[c] < 0) {
+                return Result.MALFORMED;
+            }
+        }
+        // Los tres segmentos deben tener contenido (un token sin firma no se acepta)
+        if (firstDot <= 0 || secondDot <= firstDot + 1 || secondDot == length - 1) {
+            return Result.MALFORMED;
+        }
+
+        // Un mismo array sirve para decodificar la cabecera y después el payload
+        byte[] buffer = new byte[Math.max(firstDot, secondDot - firstDot - 1) * 3 / 4 + 1];
+
+        int headerLength = decode(token, 0, firstDot, buffer);
+        if (headerLength < 0) {
+            return Result.MALFORMED;
+        }
+        int alg = findTopLevelValue(buffer, headerLength, ALG_KEY);
+        if (alg < 0 || !isString(buffer, headerLength, alg, expectedAlgorithm)) {
+            return Result.UNSUPPORTED_ALGORITHM;
+        }
+
+        int payloadLength = decode(token, firstDot + 1, secondDot, buffer);
+        if (payloadLength < 0) {
+            return Result.MALFORMED;
+        }
+        int exp = findTopLevelValue(buffer, payloadLength, EXP_KEY);
+        if (exp >= 0) {
+            long expSeconds = parseLong(buffer, payloadLength, exp);
+            // Mismo criterio que JJWT: expirado si ahora es posterior a exp
+            if (expSeconds != Long.MIN_VALUE && nowMillis > expSeconds * 1000) {
+                return Result.EXPIRED;
+            }
+        }
+        return Result.OK;
+    }
+
+    /**
+     * Decodifica base64url sin relleno (ya validado el alfabeto) en el buffer.
+     *
+     * @return bytes decodificados, o -1 si la longitud no es válida
+     */
+    private static int decode(String source, int from, int to, byte[] target) {
+        int length = to - from;
+        if (length % 4 == 1) {
+            return -1;
+        }
+        int out = 0;
+        int bits = 0;
+        int bitCount = 0;
+        for (int i = from; i < to; i++) {
+            bits = (bits << 6) | BASE64URL[source.charAt(i)];
+            bitCount += 6;
+            if (bitCount >= 8) {
+                bitCount -= 8;
+                target[out++] = (byte) (bits >> bitCount);
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Busca una clave en el objeto JSON de primer nivel (ignorando objetos y arrays anidados y el contenido
+     * de las cadenas) y devuelve la posición de su valor, o -1 si no está.
+     */
+    private static int findTopLevelValue(byte[] json, int length, byte[] key) {
+        int depth = 0;
+        int i = 0;
+        while (i < length) {
+            byte b = json[i];
+            if (b == '"') {
+                int end = endOfString(json, length, i);
+                if (end < 0) {
+                    return -1;
+                }
+                if (depth == 1) {
+                    int colon = skipWhitespace(json, length, end + 1);
+                    if (colon < length && json[colon] == ':') {
+                        if (Arrays.equals(json, i + 1, end, key, 0, key.length)) {
+                            return skipWhitespace(json, length, colon + 1);
+                        }
+                        i = colon + 1;
+                        continue;
+                    }
+                }
+                i = end + 1;
+                continue;
+            }
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+            }
+            i++;
+        }
+        return -1;
+    }
+
+    // Posición de las comillas que cierran la cadena que empieza en start, o -1 si no se cierra
+    private static int endOfString(byte[] json, int length, int start) {
+        for (int i = start + 1; i < length; i++) {
+            if (json[i] == '\\') {
+                i++;
+            } else if (json[i] == '"') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipWhitespace(byte[] json, int length, int from) {
+        int i = from;
+        while (i < length && (json[i] == ' ' || json[i] == '\t' || json[i] == '\n' || json[i] == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    // Indica si en la posición hay una cadena JSON exactamente igual al valor esperado
+    private static boolean isString(byte[] json, int length, int at, byte[] expected) {
+        int end = at + expected.length + 1;
+        return end < length
+                && json[at] == '"'
+                && Arrays.equals(json, at + 1, end, expected, 0, expected.length)
+                && json[end] == '"';
+    }
+
+    /**
+     * Lee la parte entera de un número JSON; Long.MIN_VALUE si no es un número o no cabe en un long.
+     */
+    private static long parseLong(byte[] json, int length, int at) {
+        int i = at;
+        boolean negative = i < length && json[i] == '-';
+        if (negative) {
+            i++;
+        }
+        int start = i;
+        long value = 0;
+        while (i < length && json[i] >= '0' && json[i] <= '9') {
+            if (i - start >= 18) {
+                return Long.MIN_VALUE;
+            }
+            value = value * 10 + (json[i] - '0');
+            i++;
+        }
+        if (i == start) {
+            return Long.MIN_VALUE;
+        }
+        return negative ? -value : value;
+    }
+}
@@ -1,38 +1,99 @@
 package com.sharelist.api.security;
 
+import com.sharelist.api.metrics.AuthMetrics;
+import com.sharelist.api.metrics.AuthMetrics.VerificationResult;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * Componente encargado de la creación, validación y parsing de tokens JWT.
  * Utiliza la biblioteca JJWT (Java JWT) para gestionar la firma y decodificación de tokens.
  */
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
-    // Clave secreta definida en application.yml para firmar los tokens
-    @Value("${security.jwt.secret-key}")
+    // Nombres de los claims usados en el modo stateless
+    static final String AUTHORITIES_CLAIM = "roles";
+    static final String ENABLED_CLAIM = "enabled";
+
+    // Claim de permisos en los tokens compactos: una única cadena separada por espacios
+    static final String COMPACT_AUTHORITIES_CLAIM = "r";
+
+    // Bytes aleatorios del jti de los tokens compactos (128 bits, como un UUID, en 22 caracteres en vez de 36)
+    private static final int COMPACT_TOKEN_ID_BYTES = 16;
+    private static final SecureRandom TOKEN_ID_RANDOM = new SecureRandom();
+
+    // Claim que distingue los refresh tokens de los access tokens
+    static final String TOKEN_TYPE_CLAIM = "typ";
+    static final String REFRESH_TOKEN_TYPE = "refresh";
+
+    // Clave secreta definida en application.yml para firmar los tokens (sólo con HS256)
+    @Value("${security.jwt.secret-key:}")
     private String secretKey;
 
     // Tiempo de expiración del token en milisegundos (también configurado en application.yml)
     @Value("${security.jwt.expire-length}")
     private long validityInMilliseconds;
 
-    // Clave firmada internamente para uso de la API de JWT
+    // Tiempo de expiración del refresh token en milisegundos (por defecto, 7 días)
+    @Value("${security.jwt.refresh-expire-length:604800000}")
+    private long refreshValidityInMilliseconds;
+
+    // Tokens compactos: nombres de claim cortos y sin claims redundantes, para reducir la cabecera Authorization
+    @Value("${security.jwt.compact-claims:false}")
+    private boolean compactClaims;
+
+    // Clave HMAC derivada de la clave secreta (sólo con HS256)
     private Key key;
 
+    // Parser construido una sola vez: es inmutable y seguro para usar desde varios hilos
+    private JwtParser jwtParser;
+
+    // Métricas de emisión y verificación de tokens
+    private final AuthMetrics authMetrics;
+
+    // Claves asimétricas (RS256/ES256); con HS256 no se usa
+    private final JwtKeyRing keyRing;
+
     /**
-     * Inicializa la clave HMAC usando la clave secreta. Este método se ejecuta después de la inyección de dependencias.
+     * Inicializa la clave de firma y construye el parser reutilizable.
+     * Con HS256 se usa la clave HMAC derivada de la clave secreta; con RS256/ES256 el parser
+     * elige la clave pública del anillo según el "kid" de la cabecera de cada token.
+     * Este método se ejecuta después de la inyección de dependencias.
      */
     @PostConstruct
     protected void init() {
+        if (keyRing.isAsymmetric()) {
+            jwtParser = Jwts.parserBuilder()
+                    .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                        @Override
+                        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                            return resolveVerificationKey(header);
+                        }
+                    })
+                    .build();
+            return;
+        }
         key = Keys.hmacShaKeyFor(secretKey.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
     /**
@@ -42,30 +103,180 @@ public class JwtTokenProvider {
      * @return token JWT firmado y con fecha de expiración
      */
     public String createToken(String username) {
+        long start = System.nanoTime();
         Date now = new Date();
         Date validity = new Date(now.getTime() + validityInMilliseconds);
 
-        return Jwts.builder()
+        String token = sign(Jwts.builder()
                 .setSubject(username)       // asignamos el subject (quién es el usuario)
+                .setId(newTokenId())        // identificador único, permite revocar el token
                 .setIssuedAt(now)           // fecha de creación
-                .setExpiration(validity)    // fecha de expiración
+                .setExpiration(validity));  // fecha de expiración
+        authMetrics.recordTokenCreation(System.nanoTime() - start);
+        return token;
+    }
+
+    /**
+     * Genera un token JWT que, además del subject, incluye los permisos del usuario y si está habilitado.
+     * Permite reconstruir la autenticación sólo a partir del token (modo stateless), sin consultar la base de datos.
+     *
+     * @param userDetails usuario autenticado
+     * @return token JWT firmado y con fecha de expiración
+     */
+    public String createToken(UserDetails userDetails) {
+        long start = System.nanoTime();
+        Date now = new Date();
+        Date validity = new Date(now.getTime() + validityInMilliseconds);
+
+        List<String> authorities = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
+        JwtBuilder builder = Jwts.builder()
+                .setSubject(userDetails.getUsername())
+                .setId(newTokenId())
+                .setIssuedAt(now)
+                .setExpiration(validity);
+        if (compactClaims) {
+            // Los usuarios deshabilitados no pueden obtener tokens, así que "enabled" se omite (ausente = habilitado)
+            builder.claim(COMPACT_AUTHORITIES_CLAIM, String.join(" ", authorities));
+            if (!userDetails.isEnabled()) {
+                builder.claim(ENABLED_CLAIM, false);
+            }
+        } else {
+            builder.claim(AUTHORITIES_CLAIM, authorities)
+                    .claim(ENABLED_CLAIM, userDetails.isEnabled());
+        }
+        String token = sign(builder);
+        authMetrics.recordTokenCreation(System.nanoTime() - start);
+        return token;
+    }
+
+    /**
+     * Genera un refresh token para el usuario: sólo sirve para obtener un nuevo access token
+     * en /api/auth/refresh, y se revoca en cuanto se usa (rotación).
+     *
+     * @param username nombre de usuario
+     * @return refresh token firmado, con su propio jti y una validez más larga que la del access token
+     */
+    public String createRefreshToken(String username) {
+        Date now = new Date();
+        Date validity = new Date(now.getTime() + refreshValidityInMilliseconds);
+
+        return sign(Jwts.builder()
+                .setSubject(username)
+                .setId(newTokenId())
+                .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE)
+                .setIssuedAt(now)
+                .setExpiration(validity));
+    }
+
+    /**
+     * Indica si unos claims verificados pertenecen a un refresh token (que no debe aceptarse como access token).
+     */
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM, String.class));
+    }
+
+    private String newTokenId() {
+        if (!compactClaims) {
+            return UUID.randomUUID().toString();
+        }
+        byte[] id = new byte[COMPACT_TOKEN_ID_BYTES];
+        TOKEN_ID_RANDOM.nextBytes(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id);
+    }
+
+    /**
+     * Firma el token: con HS256 usa la clave secreta; con RS256/ES256 usa la clave activa del anillo
+     * e indica su "kid" en la cabecera para que cualquiera pueda verificarlo con el JWKS publicado.
+     */
+    private String sign(JwtBuilder builder) {
+        if (keyRing.isAsymmetric()) {
+            JwtKeyRing.SigningKey signingKey = keyRing.activeKey();
+            return builder
+                    .setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
+                    .signWith(signingKey.keyPair().getPrivate(), keyRing.getAlgorithm())
+                    .compact();
+        }
+        return builder
                 .signWith(key, SignatureAlgorithm.HS256)  // tipo de firma y clave
                 .compact();
     }
 
     /**
-     * Extrae el nombre de usuario (subject) del token JWT.
+     * Devuelve la clave pública indicada por el "kid" del token.
+     * Un kid desconocido o de una clave fuera del periodo de gracia se trata como firma inválida.
+     */
+    private Key resolveVerificationKey(JwsHeader header) {
+        Key publicKey = keyRing.verificationKey(header.getKeyId());
+        if (publicKey == null) {
+            throw new io.jsonwebtoken.security.SignatureException("Clave de firma desconocida o retirada");
+        }
+        return publicKey;
+    }
+
+    /**
+     * Parsea el token, verifica su firma y comprueba que no haya expirado en una sola pasada.
+     * Es el punto de entrada recomendado para el filtro: evita parsear y verificar el token dos veces.
      *
-     * @param token JWT válido
-     * @return nombre de usuario extraído del token
+     * @param token JWT recibido
+     * @return los claims verificados, o vacío si el token está corrupto, manipulado o expirado
      */
-    public String getUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)      // lanza excepción si el token es inválido
-                .getBody()
-                .getSubject();
+    public Optional<Claims> verify(String token) {
+        long start = System.nanoTime();
+        VerificationResult result = VerificationResult.VALID;
+        try {
+            return Optional.of(jwtParser.parseClaimsJws(token).getBody());
+        } catch (ExpiredJwtException e) {
+            result = VerificationResult.EXPIRED;
+        } catch (io.jsonwebtoken.security.SecurityException e) {
+            // Firma incorrecta: el token ha sido manipulado o firmado con otra clave
+            result = VerificationResult.BAD_SIGNATURE;
+        } catch (MalformedJwtException | IllegalArgumentException e) {
+            result = VerificationResult.MALFORMED;
+        } catch (UnsupportedJwtException e) {
+            result = VerificationResult.UNSUPPORTED;
+        } catch (JwtException e) {
+            result = VerificationResult.INVALID;
+        } finally {
+            authMetrics.recordTokenVerification(result, System.nanoTime() - start);
+        }
+        // Token inválido, expirado o manipulado
+        return Optional.empty();
+    }
+
+    /**
+     * Obtiene los permisos guardados en los claims de un token ya verificado.
+     *
+     * Admite los dos formatos: el array "roles" y la cadena "r" de los tokens compactos.
+     * La lista devuelta es inmodificable y compartida entre los tokens con los mismos permisos.
+     *
+     * @param claims claims verificados
+     * @return permisos del usuario, vacío si el token no los incluye
+     */
+    public Collection<GrantedAuthority> getAuthorities(Claims claims) {
+        String compact = claims.get(COMPACT_AUTHORITIES_CLAIM, String.class);
+        if (compact != null) {
+            return GrantedAuthorities.fromCompact(compact);
+        }
+        Object roles = claims.get(AUTHORITIES_CLAIM);
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        return GrantedAuthorities.fromNames(values);
+    }
+
+    /**
+     * Indica si el usuario estaba habilitado cuando se emitió el token.
+     * Los tokens que no incluyen el claim se consideran habilitados.
+     *
+     * @param claims claims verificados
+     * @return true si el usuario está habilitado
+     */
+    public boolean isEnabled(Claims claims) {
+        Boolean enabled = claims.get(ENABLED_CLAIM, Boolean.class);
+        return enabled == null || enabled;
     }
 
     /**
@@ -75,15 +286,6 @@ public class JwtTokenProvider {
      * @return true si el token es válido, false si está corrupto o expirado
      */
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            // Token inválido, expirado o manipulado
-            return false;
-        }
+        return verify(token).isPresent();
     }
 }
@@ -0,0 +1,25 @@
+package com.sharelist.api.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Implementación en proceso de {@link SharedAuthState} para despliegues de un solo nodo:
+ * el estado local ya es el estado completo, así que no hay nada que difundir.
+ */
+@Component
+@ConditionalOnProperty(name = "security.cluster.mode", havingValue = "local", matchIfMissing = true)
+public class LocalSharedAuthState implements SharedAuthState {
+
+    @Override
+    public void publish(AuthStateEvent event) {
+        // Sin otros nodos a los que avisar
+    }
+
+    @Override
+    public void subscribe(Consumer<AuthStateEvent> listener) {
+        // Nunca llegan cambios de otros nodos
+    }
+}
@@ -0,0 +1,263 @@
+package com.sharelist.api.security;
+
+import com.sharelist.api.exception.TooManyRequestsException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Limita los intentos de login antes de llegar a BCrypt: todos los intentos por IP del cliente, y los fallidos
+ * por IP y nombre de usuario.
+ *
+ * Los fallos se cuentan por IP y usuario, no sólo por usuario: si no, cualquiera podría bloquear la cuenta de
+ * otro (en todo el clúster) enviando contraseñas incorrectas. Un login correcto no consume intentos del usuario.
+ *
+ * Cada clave tiene un token bucket representado por un único AtomicLong (algoritmo GCRA): el valor es el
+ * instante teórico en que el bucket vuelve a estar lleno, y consumir un intento es un compareAndSet,
+ * sin bloqueos. Un bucket cuyo instante ya ha pasado está lleno y no aporta información, así que se
+ * elimina en los barridos periódicos.
+ *
+ * El número de buckets está acotado: si se alcanza el máximo incluso tras el barrido (por ejemplo, un ataque
+ * desde muchas IPs), las claves nuevas comparten un array fijo de buckets indexado por hash. Así la memoria
+ * no crece con el ataque, a costa de que claves distintas puedan compartir límite.
+ *
+ * Cuando una clave agota sus intentos se publica en {@link SharedAuthState}, para que el resto de nodos
+ * también la bloqueen.
+ */
+@Component
+@RequiredArgsConstructor
+public class LoginRateLimiter {
+
+    private static final String IP_SCOPE = "ip";
+    private static final String USER_SCOPE = "ip-user";
+
+    // Tamaño del array de buckets compartidos cuando se alcanza el máximo (potencia de 2)
+    private static final int OVERFLOW_STRIPES = 1024;
+
+    // Cada cuánto se eliminan los buckets inactivos, y cada cuánto como mucho si se ha alcanzado el máximo
+    private static final long IDLE_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final long FULL_SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final SharedAuthState sharedAuthState;
+
+    // Reloj monotónico para los buckets y reloj de pared para los bloqueos compartidos (sustituibles en los tests)
+    private LongSupplier nanoTime = System::nanoTime;
+    private Clock clock = Clock.systemUTC();
+
+    // Permite desactivar la limitación (por ejemplo, en pruebas de carga)
+    @Value("${security.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    // Intentos seguidos permitidos por IP y tiempo para recuperar cada intento, en milisegundos
+    @Value("${security.rate-limit.ip.capacity:20}")
+    private int ipCapacity;
+
+    @Value("${security.rate-limit.ip.refill-interval:3000}")
+    private long ipRefillIntervalInMilliseconds;
+
+    // Intentos fallidos seguidos permitidos por IP y usuario y tiempo para recuperar cada intento, en milisegundos
+    @Value("${security.rate-limit.username.capacity:5}")
+    private int usernameCapacity;
+
+    @Value("${security.rate-limit.username.refill-interval:12000}")
+    private long usernameRefillIntervalInMilliseconds;
+
+    // Número máximo de buckets por tipo de clave
+    @Value("${security.rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    private TokenBuckets ipBuckets;
+    private TokenBuckets usernameBuckets;
+
+    /**
+     * Crea los buckets con la configuración inyectada y se suscribe a los bloqueos de otros nodos.
+     */
+    @PostConstruct
+    protected void init() {
+        long now = nanoTime.getAsLong();
+        ipBuckets = new TokenBuckets(IP_SCOPE, ipCapacity, ipRefillIntervalInMilliseconds, maxBuckets, now);
+        usernameBuckets = new TokenBuckets(USER_SCOPE, usernameCapacity, usernameRefillIntervalInMilliseconds,
+                maxBuckets, now);
+        sharedAuthState.subscribe(this::apply);
+    }
+
+    /**
+     * Consume un intento de login para la IP y comprueba, sin consumirlo, que la IP no haya agotado
+     * los intentos fallidos con ese usuario.
+     *
+     * @param clientIp dirección del cliente
+     * @param username usuario con el que se intenta iniciar sesión
+     * @throws TooManyRequestsException si la IP ha agotado sus intentos, o sus fallos con el usuario
+     */
+    public void acquire(String clientIp, String username) {
+        if (!enabled) {
+            return;
+        }
+        long waitNanos = tryAcquire(ipBuckets, clientIp);
+        if (waitNanos == 0 && username != null) {
+            waitNanos = waitNanos(usernameBuckets, userKey(clientIp, username));
+        }
+        if (waitNanos > 0) {
+            throw new TooManyRequestsException("Demasiados intentos de inicio de sesión",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+
+    /**
+     * Consume un intento fallido (credenciales inválidas o usuario inexistente) para la IP y el usuario.
+     * Cuando se agotan, los siguientes intentos de esa IP con ese usuario reciben 429 en {@link #acquire}.
+     *
+     * @param clientIp dirección del cliente
+     * @param username usuario con el que se ha intentado iniciar sesión
+     */
+    public void recordFailure(String clientIp, String username) {
+        if (!enabled || username == null) {
+            return;
+        }
+        tryAcquire(usernameBuckets, userKey(clientIp, username));
+    }
+
+    /**
+     * Número de buckets en memoria (IP y usuario), sin contar los compartidos.
+     */
+    public int size() {
+        return ipBuckets.buckets.size() + usernameBuckets.buckets.size();
+    }
+
+    /**
+     * Intenta consumir un intento del bucket de la clave.
+     *
+     * @return 0 si se permite; si no, nanosegundos hasta que vuelva a haber un intento disponible
+     */
+    private long tryAcquire(TokenBuckets scope, String key) {
+        long now = nanoTime.getAsLong();
+        AtomicLong bucket = scope.bucket(key, now);
+        while (true) {
+            long current = bucket.get();
+            long next = Math.max(current - now, 0) + now + scope.intervalNanos;
+            if (next - now > scope.burstNanos) {
+                return next - now - scope.burstNanos;
+            }
+            if (bucket.compareAndSet(current, next)) {
+                // Este intento ha vaciado el bucket: se avisa al resto de nodos hasta cuándo queda bloqueado
+                long blockedUntil = next + scope.intervalNanos - scope.burstNanos;
+                if (blockedUntil - now > 0) {
+                    sharedAuthState.publish(new AuthStateEvent(AuthStateEvent.Type.RATE_LIMITED,
+                            scope.name + ":" + key,
+                            clock.millis() + TimeUnit.NANOSECONDS.toMillis(blockedUntil - now)));
+                }
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Comprueba si queda un intento en el bucket de la clave, sin consumirlo ni crear el bucket.
+     *
+     * @return 0 si queda alguno; si no, nanosegundos hasta que vuelva a haber un intento disponible
+     */
+    private long waitNanos(TokenBuckets scope, String key) {
+        AtomicLong bucket = scope.existingBucket(key);
+        if (bucket == null) {
+            return 0;
+        }
+        long now = nanoTime.getAsLong();
+        long next = Math.max(bucket.get() - now, 0) + now + scope.intervalNanos;
+        return Math.max(next - now - scope.burstNanos, 0);
+    }
+
+    private static String userKey(String clientIp, String username) {
+        return clientIp + "/" + username;
+    }
+
+    // Aplica un bloqueo recibido de otro nodo, sin volver a publicarlo
+    private void apply(AuthStateEvent event) {
+        if (event.type() != AuthStateEvent.Type.RATE_LIMITED) {
+            return;
+        }
+        int separator = event.key().indexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        String scopeName = event.key().substring(0, separator);
+        TokenBuckets scope = IP_SCOPE.equals(scopeName) ? ipBuckets
+                : USER_SCOPE.equals(scopeName) ? usernameBuckets : null;
+        long remainingMillis = event.value() - clock.millis();
+        if (scope == null || remainingMillis <= 0) {
+            return;
+        }
+
+        long now = nanoTime.getAsLong();
+        // Instante teórico que deja el bucket vacío hasta el fin del bloqueo
+        long blockedTat = now + TimeUnit.MILLISECONDS.toNanos(remainingMillis) + scope.burstNanos - scope.intervalNanos;
+        scope.bucket(event.key().substring(separator + 1), now)
+                .getAndUpdate(current -> blockedTat - current > 0 ? blockedTat : current);
+    }
+
+    /**
+     * Buckets de un tipo de clave (IP o usuario) con sus límites.
+     */
+    private static final class TokenBuckets {
+
+        private final String name;
+        private final long intervalNanos;
+        private final long burstNanos;
+        private final int maxBuckets;
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong[] overflow = new AtomicLong[OVERFLOW_STRIPES];
+        private final AtomicLong lastSweep;
+
+        private TokenBuckets(String name, int capacity, long refillIntervalInMilliseconds, int maxBuckets, long now) {
+            this.name = name;
+            this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(refillIntervalInMilliseconds);
+            this.burstNanos = intervalNanos * capacity;
+            this.maxBuckets = maxBuckets;
+            this.lastSweep = new AtomicLong(now);
+            for (int i = 0; i < overflow.length; i++) {
+                overflow[i] = new AtomicLong(now);
+            }
+        }
+
+        private AtomicLong bucket(String key, long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            boolean full = buckets.size() >= maxBuckets;
+            sweepIdleIfDue(now, full ? FULL_SWEEP_INTERVAL_NANOS : IDLE_SWEEP_INTERVAL_NANOS);
+            if (buckets.size() >= maxBuckets) {
+                return overflowBucket(key);
+            }
+            // Un bucket nuevo está lleno: su instante teórico es ahora
+            return buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        // Bucket de la clave si ya existe (o el compartido si se ha alcanzado el máximo); null si estaría lleno
+        private AtomicLong existingBucket(String key) {
+            AtomicLong bucket = buckets.get(key);
+            return bucket != null || buckets.size() < maxBuckets ? bucket : overflowBucket(key);
+        }
+
+        private AtomicLong overflowBucket(String key) {
+            int hash = key.hashCode();
+            return overflow[(hash ^ (hash >>> 16)) & (OVERFLOW_STRIPES - 1)];
+        }
+
+        private void sweepIdleIfDue(long now, long interval) {
+            long last = lastSweep.get();
+            // Sólo un hilo hace el barrido en cada intervalo
+            if (now - last < interval || !lastSweep.compareAndSet(last, now)) {
+                return;
+            }
+            // Un bucket lleno equivale a uno nuevo, así que eliminarlo no cambia ningún límite
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        }
+    }
+}
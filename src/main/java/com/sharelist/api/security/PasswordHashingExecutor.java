@@ -0,0 +1,136 @@
+package com.sharelist.api.security;
+
+import com.sharelist.api.exception.ServiceOverloadedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool de hilos dedicado al trabajo de cifrado de contraseñas (BCrypt), que es costoso en CPU.
+ *
+ * Saca ese trabajo de los hilos del servidor para que un pico de logins o registros no deje
+ * sin hilos al resto de endpoints. La cola es acotada: si se llena, la tarea se rechaza
+ * al momento con un {@link ServiceOverloadedException} (503 + Retry-After) en lugar de esperar.
+ *
+ * Sólo se envía al pool el cálculo del hash ({@link PooledPasswordEncoder}): las consultas y
+ * transacciones de la petición siguen en el hilo que la atiende.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    // Número de hilos del pool; por defecto, uno por núcleo disponible
+    @Value("${security.password.hashing.pool-size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int poolSize;
+
+    // Tareas que pueden quedar en espera antes de empezar a rechazar
+    @Value("${security.password.hashing.queue-capacity:100}")
+    private int queueCapacity;
+
+    // Valor de la cabecera Retry-After cuando el pool está saturado
+    @Value("${security.password.hashing.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    protected void init() {
+        executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Ejecuta una tarea en el pool de cifrado.
+     *
+     * @param task tarea a ejecutar (login, registro, cambio de contraseña...)
+     * @return futuro con el resultado de la tarea
+     * @throws ServiceOverloadedException si el pool y su cola están llenos
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceOverloadedException(
+                    "El servidor está ocupado. Inténtalo de nuevo en unos segundos.", retryAfterSeconds);
+        }
+    }
+
+    /**
+     * Ejecuta una tarea en el pool de cifrado y espera su resultado en el hilo que llama.
+     * Desde un hilo del propio pool (por ejemplo, un bloque del registro masivo) la tarea se ejecuta ahí mismo:
+     * esperar a otra tarea del pool podría dejarlo bloqueado.
+     *
+     * @param task tarea a ejecutar (normalmente, un hash BCrypt)
+     * @return el resultado de la tarea
+     * @throws ServiceOverloadedException si el pool y su cola están llenos
+     */
+    public <T> T execute(Supplier<T> task) {
+        if (Thread.currentThread() instanceof HashingThread) {
+            return task.get();
+        }
+        try {
+            return submit(task).join();
+        } catch (CompletionException e) {
+            // Se relanza la excepción de la tarea tal cual, como si se hubiera ejecutado en este hilo
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Número de hilos del pool, útil para repartir trabajos grandes en bloques.
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Crea hilos con nombre reconocible en volcados de hilos y perfiles.
+     */
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new HashingThread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Hilo del pool, para reconocer las llamadas que ya se ejecutan en él.
+     */
+    private static final class HashingThread extends Thread {
+
+        HashingThread(Runnable runnable, String name) {
+            super(runnable, name);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.sharelist.api.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * PasswordEncoder que calcula los hashes (encode y matches) en el pool de cifrado ({@link PasswordHashingExecutor}).
+ *
+ * Quien lo usa (login, registro, cambio de contraseña) sigue en su propio hilo para todo lo demás, incluidas
+ * las consultas y transacciones JDBC, y sólo espera al pool mientras se calcula el BCrypt. Si el pool está
+ * lleno, encode y matches lanzan {@link com.sharelist.api.exception.ServiceOverloadedException} (503).
+ */
+public class PooledPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    public PooledPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor passwordHashingExecutor) {
+        this.delegate = delegate;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return passwordHashingExecutor.execute(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return passwordHashingExecutor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Sólo lee el prefijo y el coste del hash guardado: no pasa por el pool.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,89 @@
+package com.sharelist.api.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Lista única de rutas públicas (sin autenticación), usada tanto por SecurityConfig para permitir
+ * el acceso como por JwtTokenFilter para no procesar el token en ellas.
+ *
+ * Se compila una sola vez al arrancar: las rutas exactas van a un Set (una búsqueda por petición)
+ * y sólo las que llevan comodines ("*", "**", "{var}") se comparan como PathPattern.
+ * Las rutas exactas no admiten sufijos: "/api/users/register" no cubre "/api/users/register-x".
+ */
+@Component
+public class PublicPathRegistry implements RequestMatcher {
+
+    // Rutas públicas, separadas por comas; admiten patrones de Spring (PathPattern)
+    @Value("${security.public-paths:/api/users/register,/api/auth/login,/api/auth/refresh,"
+            + "/.well-known/jwks.json,/actuator/health}")
+    private List<String> publicPaths;
+
+    private Set<String> exactPaths;
+    private List<PathPattern> patterns;
+
+    /**
+     * Separa las rutas exactas de los patrones y compila estos últimos.
+     */
+    @PostConstruct
+    protected void init() {
+        List<String> exact = new ArrayList<>();
+        List<PathPattern> compiled = new ArrayList<>();
+        for (String path : publicPaths) {
+            String trimmed = path.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (trimmed.contains("*") || trimmed.contains("{")) {
+                compiled.add(PathPatternParser.defaultInstance.parse(trimmed));
+            } else {
+                exact.add(trimmed);
+            }
+        }
+        exactPaths = Set.copyOf(exact);
+        patterns = List.copyOf(compiled);
+    }
+
+    /**
+     * Indica si la petición va a una ruta pública.
+     */
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        return isPublic(pathWithinApplication(request));
+    }
+
+    /**
+     * Indica si una ruta (sin el context path) es pública.
+     */
+    public boolean isPublic(String path) {
+        if (exactPaths.contains(path)) {
+            return true;
+        }
+        if (patterns.isEmpty()) {
+            return false;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(container)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        return contextPath.isEmpty() ? uri : uri.substring(contextPath.length());
+    }
+}
@@ -0,0 +1,154 @@
+package com.sharelist.api.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Almacén en memoria de tokens revocados antes de su expiración.
+ *
+ * Guarda dos cosas, ambas consultables en O(1) desde el filtro JWT:
+ * - los "jti" de tokens concretos revocados (logout, refresh tokens ya usados);
+ * - por usuario, el instante a partir del cual sus tokens anteriores dejan de valer
+ *   (deshabilitado, cambio de contraseña).
+ *
+ * Cada entrada se conserva sólo hasta que el token que revoca habría expirado por sí mismo,
+ * así que el tamaño queda acotado por el número de revocaciones en una ventana de validez.
+ *
+ * Las revocaciones se publican en {@link SharedAuthState} para que el resto de nodos las apliquen
+ * sin tener que consultar un almacén externo en cada petición.
+ */
+@Component
+@RequiredArgsConstructor
+public class RevocationStore {
+
+    private final SharedAuthState sharedAuthState;
+
+    // Reloj de las revocaciones y de los barridos; reemplazable en los tests
+    private Clock clock = Clock.systemUTC();
+
+    // Revocación de todos los tokens de un usuario emitidos antes de notBefore (en segundos, como "iat")
+    private record UserRevocation(long notBeforeSeconds, long expiresAt) {
+    }
+
+    // Vida máxima de cualquier token (la del refresh token): pasado ese tiempo, la entrada ya no hace falta
+    @Value("${security.jwt.refresh-expire-length:604800000}")
+    private long maxTokenLifetimeInMilliseconds;
+
+    // Cada cuánto, como mucho, se recorren las entradas para eliminar las expiradas
+    private static final long PURGE_INTERVAL_MILLIS = 60_000;
+
+    private final ConcurrentHashMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, UserRevocation> revokedUsers = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurge = new AtomicLong(clock.millis());
+
+    /**
+     * Se suscribe a las revocaciones hechas en otros nodos.
+     */
+    @PostConstruct
+    protected void init() {
+        sharedAuthState.subscribe(this::apply);
+    }
+
+    /**
+     * Revoca un token concreto hasta su expiración.
+     *
+     * @param jti       identificador del token
+     * @param expiresAt instante (epoch millis) en que el token expira
+     * @return true si se ha revocado ahora; false si ya estaba revocado (por ejemplo, un refresh token reutilizado)
+     */
+    public boolean revoke(String jti, long expiresAt) {
+        if (jti == null) {
+            // Tokens emitidos antes de incluir jti: sólo pueden revocarse por usuario
+            return false;
+        }
+        purgeExpiredIfDue();
+        boolean revoked = revokedTokens.putIfAbsent(jti, expiresAt) == null;
+        if (revoked) {
+            sharedAuthState.publish(new AuthStateEvent(AuthStateEvent.Type.TOKEN_REVOKED, jti, expiresAt));
+        }
+        return revoked;
+    }
+
+    /**
+     * Revoca todos los tokens emitidos hasta ahora para el usuario (access y refresh).
+     *
+     * "iat" sólo tiene precisión de segundos, así que también se rechazan los tokens emitidos en el mismo
+     * segundo que la revocación: es preferible pedir un nuevo login que aceptar un token anterior.
+     *
+     * @param username nombre del usuario
+     */
+    public void revokeAllForUser(String username) {
+        purgeExpiredIfDue();
+        long now = clock.millis();
+        revokeUserBefore(username, now);
+        sharedAuthState.publish(new AuthStateEvent(AuthStateEvent.Type.USER_SESSIONS_REVOKED, username, now));
+    }
+
+    /**
+     * Indica si un token verificado ha sido revocado, ya sea por su jti o por una revocación de su usuario.
+     *
+     * @param claims claims verificados del token
+     * @return true si el token no debe aceptarse
+     */
+    public boolean isRevoked(Claims claims) {
+        String jti = claims.getId();
+        if (jti != null && !revokedTokens.isEmpty() && revokedTokens.containsKey(jti)) {
+            return true;
+        }
+        if (revokedUsers.isEmpty()) {
+            return false;
+        }
+        UserRevocation revocation = revokedUsers.get(claims.getSubject());
+        if (revocation == null) {
+            return false;
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() / 1000 < revocation.notBeforeSeconds();
+    }
+
+    /**
+     * Número de entradas (tokens y usuarios) que se mantienen en memoria.
+     */
+    public int size() {
+        return revokedTokens.size() + revokedUsers.size();
+    }
+
+    // Aplica una revocación recibida de otro nodo, sin volver a publicarla
+    private void apply(AuthStateEvent event) {
+        switch (event.type()) {
+            case TOKEN_REVOKED -> revokedTokens.putIfAbsent(event.key(), event.value());
+            case USER_SESSIONS_REVOKED -> revokeUserBefore(event.key(), event.value());
+            default -> {
+                // Otros cambios los aplican sus propios componentes
+            }
+        }
+    }
+
+    private void revokeUserBefore(String username, long notBeforeMillis) {
+        // Redondeo hacia arriba: un token emitido en el mismo segundo, antes de la revocación, tiene ese mismo "iat"
+        UserRevocation revocation = new UserRevocation(Math.ceilDiv(notBeforeMillis, 1000),
+                notBeforeMillis + maxTokenLifetimeInMilliseconds);
+        // Si llegan fuera de orden (por ejemplo, desde otro nodo), gana la revocación más reciente
+        revokedUsers.merge(username, revocation,
+                (current, candidate) -> candidate.notBeforeSeconds() > current.notBeforeSeconds() ? candidate : current);
+    }
+
+    private void purgeExpiredIfDue() {
+        long now = clock.millis();
+        long last = lastPurge.get();
+        // Sólo un hilo hace el barrido en cada intervalo
+        if (now - last < PURGE_INTERVAL_MILLIS || !lastPurge.compareAndSet(last, now)) {
+            return;
+        }
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedUsers.values().removeIf(revocation -> revocation.expiresAt() <= now);
+    }
+}
@@ -0,0 +1,33 @@
+package com.sharelist.api.security;
+
+import java.util.function.Consumer;
+
+/**
+ * SPI para compartir entre nodos el estado de autenticación que vive en memoria:
+ * tokens revocados, invalidaciones de la caché de usuarios y bloqueos de rate limit.
+ *
+ * Cada componente aplica primero el cambio en su estado local y después lo publica;
+ * la implementación lo hace llegar a los demás nodos, que lo aplican a través de sus suscriptores.
+ * Así las comprobaciones de cada petición siguen siendo consultas en memoria, sin red ni base de datos.
+ *
+ * Implementaciones (propiedad security.cluster.mode):
+ * - local: un único nodo, no se envía nada ({@link LocalSharedAuthState});
+ * - udp: difusión por UDP a una lista de nodos, firmada con HMAC ({@link UdpSharedAuthState}).
+ */
+public interface SharedAuthState {
+
+    /**
+     * Envía un cambio ya aplicado localmente al resto de nodos.
+     *
+     * @param event cambio a difundir
+     */
+    void publish(AuthStateEvent event);
+
+    /**
+     * Registra un suscriptor que recibirá los cambios publicados por otros nodos.
+     * Nunca recibe los publicados por este mismo nodo.
+     *
+     * @param listener suscriptor; debe ser rápido y no bloquear
+     */
+    void subscribe(Consumer<AuthStateEvent> listener);
+}
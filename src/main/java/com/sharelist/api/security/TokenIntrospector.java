@@ -0,0 +1,176 @@
+package com.sharelist.api.security;
+
+import com.sharelist.api.dto.TokenIntrospectionDTO;
+import com.sharelist.api.exception.ServiceOverloadedException;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Comprueba lotes de tokens para gateways y sidecars: en una sola petición indica, para cada token,
+ * si es un access token válido, su usuario, su expiración y sus permisos.
+ *
+ * Cada token pasa por la misma verificación que en JwtTokenFilter (caché de tokens verificados,
+ * JwtTokenProvider.verify, tipo de token y revocaciones). Los lotes grandes se reparten en bloques que se
+ * verifican en paralelo en un pool propio y acotado, separado del de BCrypt para no competir con los logins.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenIntrospector {
+
+    // Por debajo de este número de tokens no compensa repartir: se verifican en el hilo de la petición
+    private static final int MIN_TOKENS_PER_TASK = 16;
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RevocationStore revocationStore;
+    private final JwtTokenPrecheck tokenPrecheck;
+
+    // Número de hilos del pool; por defecto, uno por núcleo disponible
+    @Value("${security.jwt.introspection.pool-size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int poolSize;
+
+    // Bloques que pueden quedar en espera antes de empezar a rechazar
+    @Value("${security.jwt.introspection.queue-capacity:100}")
+    private int queueCapacity;
+
+    // Valor de la cabecera Retry-After cuando el pool está saturado
+    @Value("${security.jwt.introspection.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    protected void init() {
+        executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new IntrospectionThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @PreDestroy
+    protected void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Comprueba un lote de tokens.
+     *
+     * @param tokens tokens sin el prefijo "Bearer "
+     * @return futuro con un resultado por token, en el mismo orden
+     * @throws ServiceOverloadedException si el pool y su cola están llenos
+     */
+    public CompletableFuture<List<TokenIntrospectionDTO>> introspect(List<String> tokens) {
+        int tasks = Math.min(poolSize, tokens.size() / MIN_TOKENS_PER_TASK);
+        if (tasks <= 1) {
+            return CompletableFuture.completedFuture(introspectAll(tokens));
+        }
+
+        int chunkSize = (tokens.size() + tasks - 1) / tasks;
+        List<CompletableFuture<List<TokenIntrospectionDTO>>> chunks = new ArrayList<>(tasks);
+        List<Runnable> submitted = new ArrayList<>(tasks);
+        try {
+            for (int from = 0; from < tokens.size(); from += chunkSize) {
+                List<String> chunk = tokens.subList(from, Math.min(from + chunkSize, tokens.size()));
+                CompletableFuture<List<TokenIntrospectionDTO>> result = new CompletableFuture<>();
+                Runnable task = () -> introspectChunk(chunk, result);
+                executor.execute(task);
+                chunks.add(result);
+                submitted.add(task);
+            }
+        } catch (RejectedExecutionException e) {
+            // La petición se rechaza entera: los bloques ya enviados que siguen en cola se retiran y se cancelan,
+            // para que no ocupen el pool con un trabajo que nadie va a leer
+            submitted.forEach(executor::remove);
+            chunks.forEach(chunk -> chunk.cancel(false));
+            throw new ServiceOverloadedException(
+                    "El servidor está ocupado. Inténtalo de nuevo en unos segundos.", retryAfterSeconds);
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+                .thenApply(done -> {
+                    List<TokenIntrospectionDTO> results = new ArrayList<>(tokens.size());
+                    chunks.forEach(chunk -> results.addAll(chunk.join()));
+                    return results;
+                });
+    }
+
+    // Verifica un bloque en el pool, salvo que la petición se haya cancelado mientras esperaba
+    private void introspectChunk(List<String> tokens, CompletableFuture<List<TokenIntrospectionDTO>> result) {
+        if (result.isDone()) {
+            return;
+        }
+        try {
+            result.complete(introspectAll(tokens));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private List<TokenIntrospectionDTO> introspectAll(List<String> tokens) {
+        List<TokenIntrospectionDTO> results = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            results.add(introspect(token));
+        }
+        return results;
+    }
+
+    private TokenIntrospectionDTO introspect(String token) {
+        // Los tokens malformados o expirados se descartan sin calcular ningún hash ni firma
+        if (tokenPrecheck.check(token) != JwtTokenPrecheck.Result.OK) {
+            return TokenIntrospectionDTO.inactive();
+        }
+        Claims claims = verifiedTokenCache.get(token);
+        if (claims == null) {
+            claims = jwtTokenProvider.verify(token).orElse(null);
+            if (claims == null) {
+                return TokenIntrospectionDTO.inactive();
+            }
+            verifiedTokenCache.put(token, claims);
+        }
+
+        // Los refresh tokens, los revocados y los de usuarios deshabilitados no son access tokens activos
+        if (jwtTokenProvider.isRefreshToken(claims) || revocationStore.isRevoked(claims)
+                || !jwtTokenProvider.isEnabled(claims)) {
+            return TokenIntrospectionDTO.inactive();
+        }
+
+        return new TokenIntrospectionDTO(
+                true,
+                claims.getSubject(),
+                claims.getExpiration().getTime() / 1000,
+                jwtTokenProvider.getAuthorities(claims).stream().map(GrantedAuthority::getAuthority).toList());
+    }
+
+    /**
+     * Crea hilos con nombre reconocible en volcados de hilos y perfiles.
+     */
+    private static final class IntrospectionThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "token-introspection-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.sharelist.api.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Implementación de {@link SharedAuthState} que difunde los cambios por UDP a una lista fija de nodos.
+ *
+ * No necesita ningún servicio externo (broker, Redis...): cada nodo escucha en un puerto y envía
+ * un datagrama a cada uno de sus pares. Los mensajes van firmados con HMAC-SHA256 con un secreto
+ * compartido y llevan la hora de envío, de modo que se descartan los falsificados y los muy antiguos.
+ *
+ * UDP no garantiza la entrega: un nodo que pierda un mensaje lo compensa con la expiración natural
+ * de los tokens y el TTL de la caché de usuarios. Todos los cambios son idempotentes, así que un
+ * mensaje duplicado no tiene efecto.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "security.cluster.mode", havingValue = "udp")
+public class UdpSharedAuthState implements SharedAuthState {
+
+    private static final byte VERSION = 1;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+    private static final int MAX_PACKET_SIZE = 1024;
+
+    // Dirección y puerto en los que este nodo recibe los cambios del resto
+    @Value("${security.cluster.udp.bind-address:0.0.0.0}")
+    private String bindAddress;
+
+    @Value("${security.cluster.udp.port:9797}")
+    private int port;
+
+    // Resto de nodos del clúster, como host:puerto
+    @Value("${security.cluster.udp.peers:}")
+    private List<String> peers;
+
+    // Secreto compartido por todos los nodos para firmar los mensajes
+    @Value("${security.cluster.secret}")
+    private String secret;
+
+    // Antigüedad máxima de un mensaje para aceptarlo; acota la reutilización de mensajes capturados
+    @Value("${security.cluster.max-message-age:30000}")
+    private long maxMessageAgeInMilliseconds;
+
+    // Identifica a este nodo para ignorar sus propios mensajes si aparece en su lista de pares
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<AuthStateEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    private SecretKeySpec macKey;
+    private List<InetSocketAddress> peerAddresses;
+    private DatagramSocket socket;
+
+    @PostConstruct
+    protected void init() throws SocketException {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("security.cluster.secret es obligatorio con security.cluster.mode=udp");
+        }
+        macKey = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), MAC_ALGORITHM);
+        peerAddresses = peers.stream()
+                .filter(peer -> !peer.isBlank())
+                .map(UdpSharedAuthState::parsePeer)
+                .toList();
+        socket = new DatagramSocket(new InetSocketAddress(bindAddress, port));
+
+        Thread receiver = new Thread(this::receiveLoop, "shared-auth-state-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+        log.info("Estado de autenticación compartido por UDP en {} con {} nodos", socket.getLocalSocketAddress(),
+                peerAddresses.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        socket.close();
+    }
+
+    @Override
+    public void publish(AuthStateEvent event) {
+        byte[] message;
+        try {
+            message = encode(event);
+        } catch (IOException | GeneralSecurityException e) {
+            log.warn("No se ha podido codificar el cambio {}", event.type(), e);
+            return;
+        }
+        for (InetSocketAddress peer : peerAddresses) {
+            try {
+                socket.send(new DatagramPacket(message, message.length, peer));
+            } catch (IOException e) {
+                log.warn("No se ha podido enviar el cambio {} a {}", event.type(), peer, e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<AuthStateEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Puerto en el que escucha este nodo (útil cuando se configura 0 para elegir uno libre).
+     */
+    public int getLocalPort() {
+        return socket.getLocalPort();
+    }
+
+    private void receiveLoop() {
+        byte[] buffer = new byte[MAX_PACKET_SIZE];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        while (!socket.isClosed()) {
+            try {
+                packet.setLength(buffer.length);
+                socket.receive(packet);
+                AuthStateEvent event = decode(Arrays.copyOf(buffer, packet.getLength()));
+                if (event != null) {
+                    listeners.forEach(listener -> listener.accept(event));
+                }
+            } catch (SocketException e) {
+                // Socket cerrado al parar la aplicación
+                if (!socket.isClosed()) {
+                    log.warn("Error en el socket del estado compartido", e);
+                }
+            } catch (IOException | GeneralSecurityException | RuntimeException e) {
+                log.warn("Mensaje de estado compartido descartado", e);
+            }
+        }
+    }
+
+    private byte[] encode(AuthStateEvent event) throws IOException, GeneralSecurityException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(VERSION);
+        out.writeUTF(nodeId);
+        out.writeLong(System.currentTimeMillis());
+        out.writeByte(event.type().ordinal());
+        out.writeUTF(event.key());
+        out.writeLong(event.value());
+        out.write(mac(bytes.toByteArray()));
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Verifica y decodifica un mensaje.
+     *
+     * @return el cambio recibido, o null si el mensaje no es válido, es propio o está caducado
+     */
+    private AuthStateEvent decode(byte[] message) throws IOException, GeneralSecurityException {
+        if (message.length <= MAC_LENGTH) {
+            return null;
+        }
+        byte[] payload = Arrays.copyOf(message, message.length - MAC_LENGTH);
+        byte[] receivedMac = Arrays.copyOfRange(message, payload.length, message.length);
+        if (!MessageDigest.isEqual(receivedMac, mac(payload))) {
+            log.warn("Mensaje de estado compartido con firma inválida");
+            return null;
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        if (in.readByte() != VERSION) {
+            return null;
+        }
+        String sender = in.readUTF();
+        long sentAt = in.readLong();
+        if (nodeId.equals(sender) || Math.abs(System.currentTimeMillis() - sentAt) > maxMessageAgeInMilliseconds) {
+            return null;
+        }
+        AuthStateEvent.Type type = AuthStateEvent.Type.values()[in.readByte()];
+        return new AuthStateEvent(type, in.readUTF(), in.readLong());
+    }
+
+    private byte[] mac(byte[] payload) throws GeneralSecurityException {
+        // Mac no es thread-safe; los cambios son poco frecuentes, así que se crea uno por mensaje
+        Mac mac = Mac.getInstance(MAC_ALGORITHM);
+        mac.init(macKey);
+        return mac.doFinal(payload);
+    }
+
+    private static InetSocketAddress parsePeer(String peer) {
+        int separator = peer.lastIndexOf(':');
+        if (separator <= 0) {
+            throw new IllegalStateException("Nodo del clúster inválido (se espera host:puerto): " + peer);
+        }
+        try {
+            return new InetSocketAddress(InetAddress.getByName(peer.substring(0, separator).trim()),
+                    Integer.parseInt(peer.substring(separator + 1).trim()));
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalStateException("Nodo del clúster inválido: " + peer, e);
+        }
+    }
+}
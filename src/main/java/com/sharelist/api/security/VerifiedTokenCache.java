@@ -0,0 +1,85 @@
+package com.sharelist.api.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+
+/**
+ * Caché de tokens ya verificados. Los clientes reutilizan el mismo token durante toda su validez,
+ * así que guardar sus claims evita repetir el parseo y la comprobación de la firma en cada petición.
+ *
+ * La clave es el resumen SHA-256 del token (nunca el token en claro) y cada entrada expira
+ * exactamente cuando expira el token.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    // Permite desactivar la caché de tokens
+    @Value("${security.jwt.token-cache.enabled:true}")
+    private boolean enabled;
+
+    // Número máximo de tokens en caché
+    @Value("${security.jwt.token-cache.max-size:10000}")
+    private int maxSize;
+
+    // Reloj con el que se comprueba la expiración de los tokens en caché; reemplazable en los tests
+    private Clock clock = Clock.systemUTC();
+
+    private BoundedTtlCache<ByteBuffer, Claims> cache;
+
+    @PostConstruct
+    protected void init() {
+        cache = new BoundedTtlCache<>(maxSize, clock);
+    }
+
+    /**
+     * Devuelve los claims de un token verificado previamente, si sigue en caché y no ha expirado.
+     *
+     * @param token JWT recibido
+     * @return claims verificados, o null si hay que verificar el token
+     */
+    public Claims get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        return cache.get(digest(token));
+    }
+
+    /**
+     * Guarda los claims de un token recién verificado hasta su fecha de expiración.
+     * Los tokens sin expiración no se cachean.
+     *
+     * @param token  JWT verificado
+     * @param claims claims obtenidos al verificarlo
+     */
+    public void put(String token, Claims claims) {
+        if (!enabled || claims.getExpiration() == null) {
+            return;
+        }
+        cache.put(digest(token), claims, claims.getExpiration().getTime());
+    }
+
+    /**
+     * Caché interna, expuesta para consultar sus contadores (aciertos, fallos, expulsiones).
+     */
+    public BoundedTtlCache<ByteBuffer, Claims> getCache() {
+        return cache;
+    }
+
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            // Todas las JVM están obligadas a soportar SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,13 +1,29 @@
 package com.sharelist.api.service;
 
 import com.sharelist.api.dto.UserRegistrationDTO;
+import com.sharelist.api.exception.ServiceOverloadedException;
 import com.sharelist.api.exception.UserAlreadyExistsException;
 import com.sharelist.api.model.User;
+import com.sharelist.api.repository.UserCredentials;
 import com.sharelist.api.repository.UserRepository;
+import com.sharelist.api.security.CustomUserDetailsService;
+import com.sharelist.api.security.PasswordHashingExecutor;
+import com.sharelist.api.security.RevocationStore;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 /**
  * Servicio encargado de la lógica de negocio relacionada con los usuarios.
  * Se encarga, entre otras cosas, del registro de nuevos usuarios.
@@ -19,28 +35,38 @@ public class UserService {
     // Repositorio que interactúa con la base de datos para operaciones con usuarios
     private final UserRepository userRepository;
 
-    // Componente que se utiliza para cifrar contraseñas antes de guardarlas
+    // Componente que se utiliza para cifrar contraseñas antes de guardarlas (en el pool de cifrado)
     private final PasswordEncoder passwordEncoder;
 
+    // Servicio de carga de usuarios; se le avisa de cada cambio para invalidar su caché
+    private final CustomUserDetailsService userDetailsService;
+
+    // Pool dedicado al cifrado de contraseñas, usado en el registro masivo
+    private final PasswordHashingExecutor passwordHashingExecutor;
+
+    // Revocación de tokens, para cerrar las sesiones de un usuario deshabilitado o que cambia su contraseña
+    private final RevocationStore revocationStore;
+
+    // Acceso JDBC directo para las inserciones en batch (con IDENTITY, Hibernate no agrupa los INSERT)
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, password, email, full_name, enabled) VALUES (?, ?, ?, ?, ?)";
+
+    // Número de filas enviadas en cada batch JDBC
+    private static final int BATCH_SIZE = 100;
+
     /**
      * Registra un nuevo usuario en la base de datos si no existe previamente.
+     * Se hace un único INSERT: la unicidad de username y email la garantizan las restricciones
+     * únicas de la tabla, sin consultas previas que además podrían competir entre sí.
      *
      * @param dto Datos de registro del usuario (username, email, password, fullName)
      * @return El objeto User guardado en la base de datos
      * @throws UserAlreadyExistsException si el username o email ya están registrados
      */
     public User register(UserRegistrationDTO dto) {
-
-        // Verificación: nombre de usuario ya registrado
-        if (userRepository.existsByUsername(dto.getUsername())) {
-            throw new UserAlreadyExistsException("El nombre de usuario ya está en uso.");
-        }
-
-        // Verificación: email ya registrado
-        if (userRepository.existsByEmail(dto.getEmail())) {
-            throw new UserAlreadyExistsException("El correo electrónico ya está en uso.");
-        }
-
         try {
             // Construcción del objeto User utilizando patrón Builder (de Lombok)
             User user = User.builder()
@@ -52,11 +78,167 @@ public class UserService {
                     .build();
 
             // Guardado en la base de datos
-            return userRepository.save(user);
+            User saved = userRepository.save(user);
+            evictAfterCommit(saved.getUsername());
+            return saved;
+
+        } catch (DataIntegrityViolationException e) {
+            // Se ha violado una restricción única: indicamos qué campo está repetido
+            throw translate(e);
+        }
+    }
 
+    /**
+     * Registra varios usuarios de una vez (alta masiva de inquilinos).
+     *
+     * Las contraseñas se cifran en paralelo en el pool de cifrado, repartidas en como mucho la mitad
+     * de sus hilos (el resto queda libre para los logins). Después, ya en el hilo que llama, todos los usuarios
+     * se insertan en una sola transacción con batching JDBC. Si algún username o email está repetido no se
+     * inserta ninguno.
+     *
+     * @param dtos Datos de registro de cada usuario
+     * @return el número de usuarios creados
+     * @throws UserAlreadyExistsException si algún username o email ya existe
+     * @throws ServiceOverloadedException si el pool de cifrado no admite todos los bloques
+     */
+    public int registerAll(List<UserRegistrationDTO> dtos) {
+        if (dtos.isEmpty()) {
+            return 0;
+        }
+
+        int chunkCount = Math.min(Math.max(1, passwordHashingExecutor.getPoolSize() / 2), dtos.size());
+        int chunkSize = (dtos.size() + chunkCount - 1) / chunkCount;
+
+        List<CompletableFuture<List<User>>> chunks = new ArrayList<>(chunkCount);
+        try {
+            for (int from = 0; from < dtos.size(); from += chunkSize) {
+                List<UserRegistrationDTO> chunk = dtos.subList(from, Math.min(from + chunkSize, dtos.size()));
+                chunks.add(passwordHashingExecutor.submit(() -> chunk.stream().map(this::toNewUser).toList()));
+            }
+        } catch (ServiceOverloadedException e) {
+            // Se rechaza el lote entero: los bloques ya enviados se cancelan y no llegan a cifrarse
+            chunks.forEach(chunk -> chunk.cancel(false));
+            throw e;
+        }
+
+        List<User> users = new ArrayList<>(dtos.size());
+        chunks.forEach(chunk -> users.addAll(chunk.join()));
+        return insertAll(users);
+    }
+
+    /**
+     * Inserta los usuarios (con la contraseña ya cifrada) en un único batch JDBC dentro de una transacción.
+     */
+    private int insertAll(List<User> users) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_USER_SQL, users, BATCH_SIZE, (ps, user) -> {
+                        ps.setString(1, user.getUsername());
+                        ps.setString(2, user.getPassword());
+                        ps.setString(3, user.getEmail());
+                        ps.setString(4, user.getFullName());
+                        ps.setBoolean(5, user.isEnabled());
+                    }));
         } catch (DataIntegrityViolationException e) {
-            // Este error puede darse si no se respetan las restricciones únicas en BD
-            throw new UserAlreadyExistsException("El usuario ya existe con username: " + dto.getUsername());
+            throw translate(e);
+        }
+
+        users.forEach(user -> userDetailsService.evictUser(user.getUsername()));
+        return users.size();
+    }
+
+    private User toNewUser(UserRegistrationDTO dto) {
+        return User.builder()
+                .username(dto.getUsername())
+                .password(passwordEncoder.encode(dto.getPassword()))
+                .email(dto.getEmail())
+                .fullName(dto.getFullName())
+                .enabled(true)
+                .build();
+    }
+
+    /**
+     * Traduce la violación de una restricción única en el error correspondiente al campo repetido.
+     * El nombre de la restricción aparece en el mensaje del driver (MySQL: "for key 'users.uk_users_email'").
+     * Cualquier otra violación (NOT NULL, longitud de columna...) no es un duplicado y se devuelve tal cual.
+     */
+    private static RuntimeException translate(DataIntegrityViolationException e) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (message.contains(User.EMAIL_UNIQUE_CONSTRAINT)) {
+            return new UserAlreadyExistsException("El correo electrónico ya está en uso.");
+        }
+        if (message.contains(User.USERNAME_UNIQUE_CONSTRAINT)) {
+            return new UserAlreadyExistsException("El nombre de usuario ya está en uso.");
+        }
+        return e;
+    }
+
+    /**
+     * Deshabilita un usuario. Sus tokens emitidos hasta ahora dejan de aceptarse tras el commit.
+     *
+     * @param username nombre del usuario a deshabilitar
+     * @throws UsernameNotFoundException si el usuario no existe
+     */
+    @Transactional
+    public void disable(String username) {
+        if (userRepository.disableByUsername(username) == 0) {
+            throw new UsernameNotFoundException("Usuario no encontrado: " + username);
+        }
+        revokeSessionsAfterCommit(username);
+    }
+
+    /**
+     * Cambia la contraseña de un usuario, guardándola cifrada, y cierra todas sus sesiones.
+     * Sin transacción abierta mientras se calculan los dos hashes: sólo el UPDATE tiene la suya.
+     *
+     * @param username        nombre del usuario
+     * @param currentPassword contraseña actual en claro, que debe coincidir con la guardada
+     * @param newPassword     nueva contraseña en claro
+     * @return false si la contraseña actual no es correcta (no se cambia nada)
+     * @throws UsernameNotFoundException si el usuario no existe
+     */
+    public boolean changePassword(String username, String currentPassword, String newPassword) {
+        UserCredentials credentials = userRepository.findCredentialsByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + username));
+        if (!passwordEncoder.matches(currentPassword, credentials.password())) {
+            return false;
+        }
+        if (userRepository.updatePassword(username, passwordEncoder.encode(newPassword)) == 0) {
+            throw new UsernameNotFoundException("Usuario no encontrado: " + username);
+        }
+        revokeSessionsAfterCommit(username);
+        return true;
+    }
+
+    /**
+     * Invalida el usuario en la caché una vez confirmada la transacción, para que ninguna
+     * lectura concurrente vuelva a cachear el estado anterior antes del commit.
+     */
+    private void evictAfterCommit(String username) {
+        afterCommit(() -> userDetailsService.evictUser(username));
+    }
+
+    /**
+     * Invalida el usuario en la caché y revoca todos sus tokens emitidos hasta ahora,
+     * una vez confirmada la transacción.
+     */
+    private void revokeSessionsAfterCommit(String username) {
+        afterCommit(() -> {
+            userDetailsService.evictUser(username);
+            revocationStore.revokeAllForUser(username);
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
     }
 }
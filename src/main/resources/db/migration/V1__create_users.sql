@@ -0,0 +1,15 @@
+-- Tabla de usuarios. Compatible con MySQL 8 y con H2 en modo MySQL (tests y benchmarks).
+-- Los nombres de las restricciones únicas coinciden con User.USERNAME_UNIQUE_CONSTRAINT y
+-- User.EMAIL_UNIQUE_CONSTRAINT: el registro los usa para saber qué campo está repetido.
+-- Cada restricción única crea su índice, que es el que usa la búsqueda por username del login.
+CREATE TABLE users (
+    id        BIGINT       NOT NULL AUTO_INCREMENT,
+    username  VARCHAR(255) NOT NULL,
+    password  VARCHAR(255) NOT NULL,
+    email     VARCHAR(255),
+    full_name VARCHAR(255),
+    enabled   BOOLEAN      NOT NULL DEFAULT TRUE,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
@@ -0,0 +1,60 @@
+package com.sharelist.api.config;
+
+import com.sharelist.api.repository.UserCredentials;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeHint;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.util.ClassUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de las pistas de la imagen nativa: qué registra {@link JjwtRuntimeHints} y que las clases existan.
+ */
+class JjwtRuntimeHintsTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+    private final ClassLoader classLoader = getClass().getClassLoader();
+
+    @BeforeEach
+    void setUp() {
+        new JjwtRuntimeHints().registerHints(hints, classLoader);
+    }
+
+    @Test
+    void jjwtImplementationIsReflective() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(io.jsonwebtoken.impl.DefaultJwtParserBuilder.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(io.jsonwebtoken.impl.DefaultJwtBuilder.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(io.jsonwebtoken.jackson.io.JacksonSerializer.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+    }
+
+    @Test
+    void serviceLoaderFilesAreIncluded() {
+        assertThat(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.jsonwebtoken.io.Serializer")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource()
+                .forResource("META-INF/services/io.jsonwebtoken.io.Deserializer")).accepts(hints);
+    }
+
+    @Test
+    void credentialsProjectionConstructorIsReflective() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(UserCredentials.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+    }
+
+    @Test
+    void everyRegisteredTypeExists() {
+        // Un nombre mal escrito no falla al compilar, pero la imagen nativa no encontraría la clase
+        assertThat(hints.reflection().typeHints())
+                .map(TypeHint::getType)
+                .allSatisfy(type -> assertThat(ClassUtils.isPresent(type.getName(), classLoader))
+                        .as(type.getName())
+                        .isTrue());
+    }
+}
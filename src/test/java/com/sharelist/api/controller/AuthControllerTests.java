@@ -0,0 +1,116 @@
+package com.sharelist.api.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.sharelist.api.support.IntegrationTestSupport;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests del login (códigos de respuesta y una única consulta por login), de la rotación de refresh tokens
+ * y del logout.
+ */
+class AuthControllerTests extends IntegrationTestSupport {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        saveUser("juan");
+
+        // Partimos siempre de las estadísticas a cero (la caché de usuarios ya está vacía)
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void loginWithValidCredentialsReturnsTokenWithSingleQuery() throws Exception {
+        login("juan", PASSWORD)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loginWithWrongPasswordReturns401WithSingleQuery() throws Exception {
+        login("juan", "incorrecta")
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("Credenciales inválidas"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loginWithUnknownUserReturns404WithSingleQuery() throws Exception {
+        login("nadie", PASSWORD)
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Usuario no encontrado"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void refreshRotatesTokensAndRejectsReuse() throws Exception {
+        String refreshToken = refreshTokenOf(login("juan", PASSWORD).andExpect(status().isOk()));
+
+        String rotated = refreshTokenOf(refresh(refreshToken)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty()));
+
+        // El refresh token usado queda revocado; el nuevo sigue valiendo
+        refresh(refreshToken)
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("Refresh token inválido"));
+        refresh(rotated).andExpect(status().isOk());
+    }
+
+    @Test
+    void logoutRevokesAccessAndRefreshTokens() throws Exception {
+        MvcResult login = login("juan", PASSWORD).andExpect(status().isOk()).andReturn();
+        String accessToken = JsonPath.read(login.getResponse().getContentAsString(), "$.token");
+        String refreshToken = JsonPath.read(login.getResponse().getContentAsString(), "$.refreshToken");
+
+        mockMvc.perform(post("/api/auth/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/protected").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+                .andExpect(status().isUnauthorized());
+        refresh(refreshToken).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void logoutWithoutBearerTokenReturns401() throws Exception {
+        mockMvc.perform(post("/api/auth/logout").header(HttpHeaders.AUTHORIZATION, "Basic anVhbjoxMjM0NTY="))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}"));
+    }
+
+    private static String refreshTokenOf(ResultActions response) throws Exception {
+        return JsonPath.read(response.andReturn().getResponse().getContentAsString(), "$.refreshToken");
+    }
+}
@@ -0,0 +1,79 @@
+package com.sharelist.api.controller;
+
+import com.sharelist.api.security.PasswordHashingExecutor;
+import com.sharelist.api.support.IntegrationTestSupport;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test del login con el pool de cifrado lleno: 503 con Retry-After, registrado en la métrica de logins.
+ */
+@TestPropertySource(properties = {
+        "security.password.hashing.pool-size=1",
+        "security.password.hashing.queue-capacity=1",
+        "security.password.hashing.retry-after-seconds=2"
+})
+class LoginOverloadTests extends IntegrationTestSupport {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        // Con el pool libre: el alta también cifra la contraseña en él
+        saveUser("juan");
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    void loginRejectedByFullPoolIsRecordedAs503() throws Exception {
+        // Una tarea ocupa el único hilo y otra llena la cola: el usuario se encuentra, pero su contraseña
+        // no se puede comprobar
+        CountDownLatch started = new CountDownLatch(1);
+        passwordHashingExecutor.submit(() -> {
+            started.countDown();
+            return awaitRelease();
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        passwordHashingExecutor.submit(this::awaitRelease);
+
+        mockMvc.perform(loginRequest("juan", PASSWORD))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+
+        Timer overloaded = meterRegistry.find("auth.login").tag("outcome", "503").timer();
+        assertThat(overloaded).isNotNull();
+        assertThat(overloaded.count()).isEqualTo(1);
+    }
+
+    private boolean awaitRelease() {
+        try {
+            return release.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
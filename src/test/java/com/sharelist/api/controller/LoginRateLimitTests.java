@@ -0,0 +1,81 @@
+package com.sharelist.api.controller;
+
+import com.sharelist.api.support.IntegrationTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests del límite de intentos de login a través de la API: 429 con Retry-After tras agotar los fallos,
+ * con la IP del cliente tomada de X-Forwarded-For sólo si la petición llega del proxy de confianza.
+ */
+@TestPropertySource(properties = {
+        "security.rate-limit.enabled=true",
+        "security.rate-limit.username.capacity=2",
+        "security.rate-limit.username.refill-interval=30000",
+        "security.rate-limit.trusted-proxies=10.0.0.100"
+})
+class LoginRateLimitTests extends IntegrationTestSupport {
+
+    @BeforeEach
+    void setUp() {
+        saveUser("juan");
+    }
+
+    @Test
+    void failedLoginsFromOneAddressReturn429WithRetryAfter() throws Exception {
+        // Los logins correctos no gastan intentos del usuario
+        for (int i = 0; i < 3; i++) {
+            performToCompletion(loginFrom("10.0.0.1", PASSWORD));
+        }
+        performToCompletion(loginFrom("10.0.0.1", "incorrecta"));
+        performToCompletion(loginFrom("10.0.0.1", "incorrecta"));
+
+        mockMvc.perform(loginFrom("10.0.0.1", PASSWORD))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"))
+                .andExpect(jsonPath("$.error").value("Demasiados intentos de inicio de sesión"));
+
+        // Desde otra dirección el usuario puede seguir iniciando sesión
+        performToCompletion(loginFrom("10.0.0.2", PASSWORD)).andExpect(status().isOk());
+    }
+
+    @Test
+    void clientsBehindTrustedProxyAreLimitedByForwardedAddress() throws Exception {
+        performToCompletion(viaProxy("203.0.113.5", "incorrecta"));
+        performToCompletion(viaProxy("203.0.113.5", "incorrecta"));
+
+        mockMvc.perform(viaProxy("203.0.113.5", PASSWORD)).andExpect(status().isTooManyRequests());
+
+        // Otro cliente detrás del mismo proxy no comparte el límite
+        performToCompletion(viaProxy("203.0.113.6", PASSWORD)).andExpect(status().isOk());
+    }
+
+    @Test
+    void forwardedHeaderFromUntrustedAddressIsIgnored() throws Exception {
+        // El cliente cambia X-Forwarded-For en cada intento, pero no llega a través del proxy
+        performToCompletion(loginFrom("10.0.0.3", "incorrecta").header("X-Forwarded-For", "198.51.100.1"));
+        performToCompletion(loginFrom("10.0.0.3", "incorrecta").header("X-Forwarded-For", "198.51.100.2"));
+
+        mockMvc.perform(loginFrom("10.0.0.3", PASSWORD).header("X-Forwarded-For", "198.51.100.3"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    private static MockHttpServletRequestBuilder viaProxy(String clientIp, String password) {
+        return loginFrom("10.0.0.100", password).header("X-Forwarded-For", clientIp);
+    }
+
+    private static MockHttpServletRequestBuilder loginFrom(String clientIp, String password) {
+        return loginRequest("juan", password)
+                .with(request -> {
+                    request.setRemoteAddr(clientIp);
+                    return request;
+                });
+    }
+}
@@ -0,0 +1,103 @@
+package com.sharelist.api.controller;
+
+import com.sharelist.api.security.RevocationStore;
+import com.sharelist.api.support.IntegrationTestSupport;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests del filtro JWT a través de /api/protected con el usuario cargado de la base de datos:
+ * qué tokens dan acceso y cuáles se rechazan. El modo stateless tiene sus propios tests
+ * ({@link StatelessProtectedEndpointTests}).
+ */
+class ProtectedEndpointTests extends IntegrationTestSupport {
+
+    @Autowired
+    private RevocationStore revocationStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        saveUser("juan");
+    }
+
+    @Test
+    void validAccessTokenGrantsAccess() throws Exception {
+        getProtected(accessTokenFor("juan"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("¡Accediste correctamente a un recurso protegido!"));
+    }
+
+    @Test
+    void missingOrMalformedTokenIsRejected() throws Exception {
+        mockMvc.perform(get("/api/protected")).andExpect(status().isUnauthorized());
+        getProtected("no-es-un-token").andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void tokenSignatureIsVerifiedOnlyOnce() throws Exception {
+        String token = accessTokenFor("juan");
+        long before = validVerifications();
+
+        getProtected(token).andExpect(status().isOk());
+        getProtected(token).andExpect(status().isOk());
+
+        // La segunda petición reutiliza los claims de la caché de tokens verificados
+        assertThat(validVerifications() - before).isEqualTo(1);
+    }
+
+    @Test
+    void refreshTokenIsNotAcceptedAsAccessToken() throws Exception {
+        getProtected(jwtTokenProvider.createRefreshToken("juan"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void revokedTokenIsRejectedEvenIfAlreadyVerified() throws Exception {
+        String token = accessTokenFor("juan");
+        // La primera petición deja el token en la caché de tokens verificados
+        getProtected(token).andExpect(status().isOk());
+
+        Claims claims = jwtTokenProvider.verify(token).orElseThrow();
+        revocationStore.revoke(claims.getId(), claims.getExpiration().getTime());
+
+        getProtected(token).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void pathsThatOnlyStartLikePublicOnesRequireToken() throws Exception {
+        mockMvc.perform(post("/api/users/register-x")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void publicPathIgnoresGarbageToken() throws Exception {
+        // Con el filtro, la comprobación previa rechazaría este token con 401
+        performToCompletion(loginRequest("juan", PASSWORD).header(HttpHeaders.AUTHORIZATION, "Bearer basura"))
+                .andExpect(status().isOk());
+    }
+
+    private long validVerifications() {
+        return meterRegistry.get("auth.token.verification").tag("result", "valid").timer().count();
+    }
+
+    private ResultActions getProtected(String token) throws Exception {
+        return mockMvc.perform(get("/api/protected").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+}
@@ -0,0 +1,70 @@
+package com.sharelist.api.controller;
+
+import com.sharelist.api.support.IntegrationTestSupport;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests del filtro JWT en modo stateless (security.jwt.stateless): la autenticación sale sólo de los claims.
+ */
+@TestPropertySource(properties = "security.jwt.stateless=true")
+class StatelessProtectedEndpointTests extends IntegrationTestSupport {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        saveUser("juan");
+    }
+
+    @Test
+    void authenticatesFromClaimsWithoutLoadingUser() throws Exception {
+        String token = accessTokenFor("juan");
+
+        // Sin el usuario en la base de datos ni en caché, el token sigue bastando
+        userRepository.deleteAll();
+        userDetailsService.getUserCache().clear();
+
+        getProtected(token).andExpect(status().isOk());
+    }
+
+    @Test
+    void authenticatedRequestRunsNoQueries() throws Exception {
+        String token = accessTokenFor("juan");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        getProtected(token).andExpect(status().isOk());
+        getProtected(token).andExpect(status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void rejectsTokenOfDisabledUser() throws Exception {
+        String token = jwtTokenProvider.createToken(User.withUsername("juan")
+                .password("")
+                .authorities("USER")
+                .disabled(true)
+                .build());
+
+        getProtected(token).andExpect(status().isUnauthorized());
+    }
+
+    private ResultActions getProtected(String token) throws Exception {
+        return mockMvc.perform(get("/api/protected").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+}
@@ -0,0 +1,49 @@
+package com.sharelist.api.controller;
+
+import com.sharelist.api.support.IntegrationTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests de POST /api/auth/introspect: sólo para usuarios con el permiso INTROSPECTION.
+ */
+class TokenIntrospectionTests extends IntegrationTestSupport {
+
+    @BeforeEach
+    void setUp() {
+        saveUser("juan");
+        // "gateway" tiene el permiso INTROSPECTION (security.authorities.introspection en la configuración de los tests)
+        saveUser("gateway");
+    }
+
+    @Test
+    void regularUserCannotIntrospect() throws Exception {
+        mockMvc.perform(introspect(accessTokenFor("juan"), accessTokenFor("juan")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void gatewayGetsOneResultPerToken() throws Exception {
+        performToCompletion(introspect(accessTokenFor("gateway"), accessTokenFor("juan"), "no-es-un-token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].active").value(true))
+                .andExpect(jsonPath("$.results[0].sub").value("juan"))
+                .andExpect(jsonPath("$.results[0].authorities[0]").value("USER"))
+                .andExpect(jsonPath("$.results[1].active").value(false))
+                .andExpect(jsonPath("$.results[1].sub").doesNotExist());
+    }
+
+    private MockHttpServletRequestBuilder introspect(String callerToken, String... tokens) {
+        return post("/api/auth/introspect")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + callerToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tokens\":[\"" + String.join("\",\"", tokens) + "\"]}");
+    }
+}
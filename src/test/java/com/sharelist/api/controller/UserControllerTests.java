@@ -0,0 +1,191 @@
+package com.sharelist.api.controller;
+
+import com.sharelist.api.support.IntegrationTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests del registro (individual, con la traducción de las restricciones de la tabla, y masivo),
+ * del cambio de contraseña y de la deshabilitación de usuarios, incluida la invalidación de la caché de usuarios.
+ */
+class UserControllerTests extends IntegrationTestSupport {
+
+    @BeforeEach
+    void setUp() {
+        saveUser("juan");
+        // "admin" tiene el permiso PROVISIONING (security.authorities.provisioning en la configuración de los tests)
+        saveUser("admin");
+    }
+
+    @Test
+    void registerCreatesUser() throws Exception {
+        register("ana", "ana@example.com")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("ana"))
+                .andExpect(jsonPath("$.email").value("ana@example.com"))
+                // La respuesta nunca incluye la contraseña, ni siquiera cifrada
+                .andExpect(jsonPath("$.password").doesNotExist());
+
+        assertThat(userRepository.findByUsername("ana")).isPresent();
+    }
+
+    @Test
+    void registerWithExistingUsernameReturns409() throws Exception {
+        register("juan", "otro@example.com")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("El nombre de usuario ya está en uso."));
+    }
+
+    @Test
+    void registerWithExistingEmailReturns409() throws Exception {
+        register("otro", "juan@example.com")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("El correo electrónico ya está en uso."));
+    }
+
+    @Test
+    void registerWithTooLongUsernameIsNotReportedAsDuplicate() throws Exception {
+        // Error genérico, sin el mensaje de la excepción (que incluiría el SQL y los nombres de columnas)
+        register("a".repeat(300), "largo@example.com")
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.error").value("Ha ocurrido un error inesperado"));
+    }
+
+    @Test
+    void batchRequiresProvisioningAuthority() throws Exception {
+        mockMvc.perform(batch("nuevo")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessTokenFor("juan")))
+                .andExpect(status().isForbidden());
+
+        assertThat(userRepository.findByUsername("nuevo1")).isEmpty();
+    }
+
+    @Test
+    void batchCreatesAllUsers() throws Exception {
+        performToCompletion(batch("nuevo").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessTokenFor("admin")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2));
+
+        assertThat(userRepository.findByUsername("nuevo1")).isPresent();
+        assertThat(userRepository.findByUsername("nuevo2")).isPresent();
+    }
+
+    @Test
+    void batchWithExistingUsernameCreatesNone() throws Exception {
+        performToCompletion(post("/api/users/batch")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessTokenFor("admin"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"users\":[" + userJson("nuevo1", "nuevo1@example.com") + ","
+                                + userJson("juan", "juan2@example.com") + "]}"))
+                .andExpect(status().isConflict());
+
+        assertThat(userRepository.findByUsername("nuevo1")).isEmpty();
+    }
+
+    @Test
+    void registerEvictsStaleCachedUser() throws Exception {
+        // Entrada antigua del mismo nombre (por ejemplo, de un usuario borrado)
+        userDetailsService.getUserCache().put("ana",
+                User.withUsername("ana").password("").authorities("USER").disabled(true).build(), Long.MAX_VALUE);
+
+        register("ana", "ana@example.com").andExpect(status().isOk());
+
+        assertThat(userDetailsService.getUserCache().get("ana")).isNull();
+    }
+
+    @Test
+    void disableEvictsUserAndRevokesItsTokens() throws Exception {
+        // Usuario propio del test: la revocación de sus sesiones dura más que el test
+        saveUser("pedro");
+        // Crear el token deja a "pedro" en la caché
+        String token = accessTokenFor("pedro");
+
+        mockMvc.perform(post("/api/users/pedro/disable")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessTokenFor("admin")))
+                .andExpect(status().isNoContent());
+
+        assertThat(userDetailsService.getUserCache().get("pedro")).isNull();
+        getProtected(token).andExpect(status().isUnauthorized());
+        login("pedro", PASSWORD).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void disableRequiresProvisioningAuthority() throws Exception {
+        mockMvc.perform(post("/api/users/admin/disable")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessTokenFor("juan")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void disableUnknownUserReturns404() throws Exception {
+        mockMvc.perform(post("/api/users/nadie/disable")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessTokenFor("admin")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void changePasswordEvictsUserAndClosesSessions() throws Exception {
+        // Usuario propio del test: la revocación de sus sesiones dura más que el test
+        saveUser("luis");
+        String token = accessTokenFor("luis");
+
+        changePassword(token, PASSWORD, "nueva-clave").andExpect(status().isNoContent());
+
+        assertThat(userDetailsService.getUserCache().get("luis")).isNull();
+        getProtected(token).andExpect(status().isUnauthorized());
+        login("luis", PASSWORD).andExpect(status().isUnauthorized());
+        login("luis", "nueva-clave").andExpect(status().isOk());
+    }
+
+    @Test
+    void changePasswordWithWrongCurrentPasswordReturns403() throws Exception {
+        String token = accessTokenFor("juan");
+
+        changePassword(token, "incorrecta", "nueva-clave")
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.error").value("La contraseña actual no es correcta"));
+
+        getProtected(token).andExpect(status().isOk());
+        login("juan", PASSWORD).andExpect(status().isOk());
+    }
+
+    private ResultActions changePassword(String token, String currentPassword, String newPassword) throws Exception {
+        return mockMvc.perform(post("/api/users/me/password")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"currentPassword\":\"" + currentPassword + "\",\"newPassword\":\"" + newPassword + "\"}"));
+    }
+
+    private ResultActions getProtected(String token) throws Exception {
+        return mockMvc.perform(get("/api/protected").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    private ResultActions register(String username, String email) throws Exception {
+        return performToCompletion(post("/api/users/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(userJson(username, email)));
+    }
+
+    private static MockHttpServletRequestBuilder batch(String prefix) {
+        return post("/api/users/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"users\":[" + userJson(prefix + "1", prefix + "1@example.com") + ","
+                        + userJson(prefix + "2", prefix + "2@example.com") + "]}");
+    }
+
+    private static String userJson(String username, String email) {
+        return "{\"username\":\"" + username + "\",\"password\":\"123456\",\"email\":\"" + email
+                + "\",\"fullName\":\"Nuevo usuario\"}";
+    }
+}
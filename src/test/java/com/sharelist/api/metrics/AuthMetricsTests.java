@@ -0,0 +1,44 @@
+package com.sharelist.api.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de los timers del login de AuthMetrics, con un registro en memoria.
+ */
+class AuthMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AuthMetrics metrics = new AuthMetrics(registry);
+
+    @Test
+    void loginTimersAreRegisteredAtStartup() {
+        assertThat(registry.find("auth.login").timers())
+                .extracting(timer -> timer.getId().getTag("outcome"))
+                .containsExactlyInAnyOrder("200", "401", "404", "429", "500", "503");
+    }
+
+    @Test
+    void loginIsRecordedInThePreRegisteredTimer() {
+        Timer unauthorized = registry.find("auth.login").tag("outcome", "401").timer();
+
+        metrics.recordLogin(401, TimeUnit.MILLISECONDS.toNanos(5));
+        metrics.recordLogin(401, TimeUnit.MILLISECONDS.toNanos(7));
+
+        assertThat(unauthorized.count()).isEqualTo(2);
+        assertThat(registry.find("auth.login").timers()).hasSize(6);
+    }
+
+    @Test
+    void unexpectedStatusIsStillRecorded() {
+        metrics.recordLogin(418, 1_000);
+        metrics.recordLogin(418, 1_000);
+
+        assertThat(registry.find("auth.login").tag("outcome", "418").timer().count()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,109 @@
+package com.sharelist.api.migration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests de la migración V2 sobre H2 en modo MySQL, sin contexto de Spring: una base de datos nueva
+ * (V1 + V2) y una creada antes con ddl-auto y marcada como versión 1.
+ */
+class V2__NormalizeUserConstraintsTests {
+
+    // Tabla tal y como la creaba Hibernate con ddl-auto: nombre generado para el username y email sin restricción
+    private static final String DDL_AUTO_TABLE = """
+            CREATE TABLE users (
+                id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                username VARCHAR(255) NOT NULL,
+                password VARCHAR(255) NOT NULL,
+                email VARCHAR(255),
+                full_name VARCHAR(255),
+                enabled BOOLEAN NOT NULL,
+                CONSTRAINT UK_r43af9ap4edm43mmtq01oddj6 UNIQUE (username)
+            )""";
+
+    private String url;
+
+    @BeforeEach
+    void setUp() {
+        url = "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    }
+
+    @Test
+    void leavesFreshSchemaUnchanged() throws SQLException {
+        migrate();
+
+        assertThat(uniqueConstraints()).containsExactlyInAnyOrder("UK_USERS_USERNAME", "UK_USERS_EMAIL");
+    }
+
+    @Test
+    void normalizesBaselinedSchema() throws SQLException {
+        execute(DDL_AUTO_TABLE,
+                "INSERT INTO users (username, password, email, enabled) VALUES ('juan', 'x', 'juan@example.com', TRUE)");
+
+        migrate();
+
+        assertThat(uniqueConstraints()).containsExactlyInAnyOrder("UK_USERS_USERNAME", "UK_USERS_EMAIL");
+        assertThatThrownBy(() -> execute(
+                "INSERT INTO users (username, password, email, enabled) VALUES ('ana', 'x', 'juan@example.com', TRUE)"))
+                .isInstanceOf(SQLException.class)
+                .hasMessageContaining("UK_USERS_EMAIL");
+    }
+
+    @Test
+    void failsWithoutChangesWhenEmailsAreDuplicated() throws SQLException {
+        execute(DDL_AUTO_TABLE,
+                "INSERT INTO users (username, password, email, enabled) VALUES ('juan', 'x', 'repetido@example.com', TRUE)",
+                "INSERT INTO users (username, password, email, enabled) VALUES ('ana', 'x', 'repetido@example.com', TRUE)");
+
+        assertThatThrownBy(this::migrate)
+                .isInstanceOf(FlywayException.class)
+                .hasMessageContaining("users.email");
+        assertThat(uniqueConstraints()).containsExactly("UK_R43AF9AP4EDM43MMTQ01ODDJ6");
+    }
+
+    private void migrate() {
+        Flyway.configure()
+                .dataSource(url, "sa", "")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .javaMigrations(new V2__NormalizeUserConstraints())
+                .load()
+                .migrate();
+    }
+
+    private void execute(String... statements) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private List<String> uniqueConstraints() throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT UPPER(CONSTRAINT_NAME) FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS"
+                     + " WHERE CONSTRAINT_TYPE = 'UNIQUE' AND UPPER(TABLE_NAME) = 'USERS'")) {
+            while (rows.next()) {
+                names.add(rows.getString(1));
+            }
+        }
+        return names;
+    }
+}
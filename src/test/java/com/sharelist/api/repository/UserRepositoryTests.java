@@ -0,0 +1,60 @@
+package com.sharelist.api.repository;
+
+import com.sharelist.api.support.IntegrationTestSupport;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la proyección de credenciales que usa la autenticación: una sola consulta y ninguna entidad cargada.
+ */
+class UserRepositoryTests extends IntegrationTestSupport {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        saveUser("juan");
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void credentialsAreLoadedWithoutTheEntity() {
+        Optional<UserCredentials> credentials = userRepository.findCredentialsByUsername("juan");
+
+        assertThat(credentials).hasValueSatisfying(user -> {
+            assertThat(user.username()).isEqualTo("juan");
+            assertThat(passwordEncoder.matches(PASSWORD, user.password())).isTrue();
+            assertThat(user.enabled()).isTrue();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void credentialsReflectDisabledUser() {
+        userRepository.disableByUsername("juan");
+
+        assertThat(userRepository.findCredentialsByUsername("juan"))
+                .map(UserCredentials::enabled)
+                .contains(false);
+    }
+
+    @Test
+    void unknownUserHasNoCredentials() {
+        assertThat(userRepository.findCredentialsByUsername("nadie")).isEmpty();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,100 @@
+package com.sharelist.api.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests de BoundedTtlCache con un reloj controlado: expiración, expulsiones al llenarse y contadores.
+ */
+class BoundedTtlCacheTests {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final MutableClock clock = new MutableClock(Instant.ofEpochMilli(NOW));
+
+    @Test
+    void entryExpiresAtItsInstant() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, clock);
+        cache.put("juan", "valor", NOW + 1_000);
+
+        clock.advance(Duration.ofMillis(999));
+        assertThat(cache.get("juan")).isEqualTo("valor");
+
+        clock.advance(Duration.ofMillis(1));
+        assertThat(cache.get("juan")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void countsHitsMissesAndEvictions() {
+        BoundedTtlCache<String, String> cache = new BoundedTtlCache<>(10, clock);
+        cache.put("juan", "valor", NOW + 1_000);
+
+        cache.get("juan");
+        cache.get("juan");
+        cache.get("nadie");
+        clock.advance(Duration.ofSeconds(2));
+        // Expirada: cuenta como fallo y como expulsión
+        cache.get("juan");
+
+        assertThat(cache.hitCount()).isEqualTo(2);
+        assertThat(cache.missCount()).isEqualTo(2);
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fullCacheEvictsDownToNinetyPercent() {
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>(100, clock);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, "valor", NOW + 60_000);
+        }
+
+        cache.put(100, "nuevo", NOW + 60_000);
+
+        // Se expulsan 10 entradas (queda al 90%) y después entra la nueva
+        assertThat(cache.evictionCount()).isEqualTo(10);
+        assertThat(cache.size()).isEqualTo(91);
+        assertThat(cache.get(100)).isEqualTo("nuevo");
+    }
+
+    @Test
+    void fullCacheDropsExpiredEntriesFirst() {
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>(10, clock);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, "valor", i < 5 ? NOW + 1_000 : NOW + 60_000);
+        }
+        clock.advance(Duration.ofSeconds(2));
+
+        cache.put(10, "nuevo", NOW + 60_000);
+
+        // Quitar las 5 expiradas ya deja sitio: ninguna entrada válida se expulsa
+        assertThat(cache.evictionCount()).isEqualTo(5);
+        assertThat(cache.size()).isEqualTo(6);
+        for (int i = 5; i <= 10; i++) {
+            assertThat(cache.get(i)).isNotNull();
+        }
+    }
+
+    @Test
+    void replacingAKeyInAFullCacheEvictsNothing() {
+        BoundedTtlCache<Integer, String> cache = new BoundedTtlCache<>(10, clock);
+        for (int i = 0; i < 10; i++) {
+            cache.put(i, "valor", NOW + 60_000);
+        }
+
+        cache.put(3, "otro", NOW + 60_000);
+
+        assertThat(cache.evictionCount()).isZero();
+        assertThat(cache.get(3)).isEqualTo("otro");
+    }
+
+    @Test
+    void rejectsNonPositiveMaxSize() {
+        assertThatThrownBy(() -> new BoundedTtlCache<>(0, clock)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.sharelist.api.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la resolución de la IP del cliente con y sin proxies de confianza, sin contexto de Spring.
+ */
+class ClientIpResolverTests {
+
+    @Test
+    void withoutTrustedProxiesUsesConnectionAddress() {
+        ClientIpResolver resolver = resolver(List.of());
+
+        assertThat(resolver.resolve(request("10.0.0.100", "203.0.113.5"))).isEqualTo("10.0.0.100");
+    }
+
+    @Test
+    void trustedProxyForwardsClientAddress() {
+        ClientIpResolver resolver = resolver(List.of("10.0.0.0/8"));
+
+        assertThat(resolver.resolve(request("10.0.0.100", "203.0.113.5"))).isEqualTo("203.0.113.5");
+    }
+
+    @Test
+    void addressesWrittenByTheClientAreIgnored() {
+        ClientIpResolver resolver = resolver(List.of("10.0.0.0/8"));
+
+        // El cliente envía su propia cabecera; el proxy añade al final la dirección real
+        assertThat(resolver.resolve(request("10.0.0.100", "1.2.3.4, 203.0.113.5"))).isEqualTo("203.0.113.5");
+        // Con dos proxies de confianza encadenados se salta también el intermedio
+        assertThat(resolver.resolve(request("10.0.0.100", "1.2.3.4, 203.0.113.5, 10.0.0.7")))
+                .isEqualTo("203.0.113.5");
+    }
+
+    @Test
+    void untrustedConnectionCannotSpoofTheHeader() {
+        ClientIpResolver resolver = resolver(List.of("10.0.0.0/8"));
+
+        assertThat(resolver.resolve(request("203.0.113.9", "198.51.100.1"))).isEqualTo("203.0.113.9");
+    }
+
+    @Test
+    void trustedProxyWithoutHeaderUsesConnectionAddress() {
+        ClientIpResolver resolver = resolver(List.of("10.0.0.0/8"));
+
+        assertThat(resolver.resolve(request("10.0.0.100", null))).isEqualTo("10.0.0.100");
+    }
+
+    @Test
+    void hostNamesAreNeverTrusted() {
+        ClientIpResolver resolver = resolver(List.of("10.0.0.0/8"));
+
+        assertThat(resolver.resolve(request("10.0.0.100", "203.0.113.5, localhost"))).isEqualTo("localhost");
+    }
+
+    private static ClientIpResolver resolver(List<String> trustedProxies) {
+        ClientIpResolver resolver = new ClientIpResolver();
+        ReflectionTestUtils.setField(resolver, "trustedProxies", trustedProxies);
+        resolver.init();
+        return resolver;
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,83 @@
+package com.sharelist.api.security;
+
+import com.sharelist.api.repository.UserCredentials;
+import com.sharelist.api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests de la caché de usuarios de CustomUserDetailsService con un reloj controlado y el repositorio simulado.
+ */
+class CustomUserDetailsServiceTests {
+
+    private static final long TTL = 30_000;
+
+    private final MutableClock clock = new MutableClock(Instant.ofEpochMilli(1_700_000_000_000L));
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findCredentialsByUsername("juan"))
+                .thenReturn(Optional.of(new UserCredentials("juan", "{bcrypt}hash", true)));
+    }
+
+    @Test
+    void cachedUserIsServedUntilItsTtlExpires() {
+        CustomUserDetailsService service = service(true);
+
+        UserDetails first = service.loadCachedUser("juan");
+        clock.advance(Duration.ofMillis(TTL - 1));
+        assertThat(service.loadCachedUser("juan")).isSameAs(first);
+        verify(userRepository, times(1)).findCredentialsByUsername("juan");
+
+        clock.advance(Duration.ofMillis(1));
+        assertThat(service.loadCachedUser("juan")).isNotSameAs(first);
+        verify(userRepository, times(2)).findCredentialsByUsername("juan");
+    }
+
+    @Test
+    void evictedUserIsReloaded() {
+        CustomUserDetailsService service = service(true);
+        service.loadCachedUser("juan");
+
+        service.evictUser("juan");
+
+        assertThat(service.getUserCache().size()).isZero();
+        service.loadCachedUser("juan");
+        verify(userRepository, times(2)).findCredentialsByUsername("juan");
+    }
+
+    @Test
+    void disabledCacheQueriesTheDatabaseEveryTime() {
+        CustomUserDetailsService service = service(false);
+
+        UserDetails first = service.loadUserByUsername("juan");
+        UserDetails second = service.loadCachedUser("juan");
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(service.getUserCache().size()).isZero();
+        verify(userRepository, times(2)).findCredentialsByUsername("juan");
+    }
+
+    private CustomUserDetailsService service(boolean cacheEnabled) {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, new LocalSharedAuthState());
+        ReflectionTestUtils.setField(service, "cacheEnabled", cacheEnabled);
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 100);
+        ReflectionTestUtils.setField(service, "cacheTtlInMilliseconds", TTL);
+        ReflectionTestUtils.setField(service, "clock", clock);
+        service.init();
+        return service;
+    }
+}
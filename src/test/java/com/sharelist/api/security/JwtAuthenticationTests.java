@@ -0,0 +1,60 @@
+package com.sharelist.api.security;
+
+import com.sharelist.api.support.IntegrationTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests de la autenticación que crea JwtTokenFilter con el usuario de la base de datos: usa el usuario
+ * de la caché tal cual, sin copiarlo.
+ * El modo stateless tiene sus propios tests ({@link StatelessJwtAuthenticationTests}).
+ */
+class JwtAuthenticationTests extends IntegrationTestSupport {
+
+    @BeforeEach
+    void setUp() {
+        saveUser("juan");
+    }
+
+    @Test
+    void databasePrincipalIsTheCachedUserWithoutCopies() throws Exception {
+        Authentication authentication = authenticateThroughFilter(accessTokenFor("juan"));
+        UserDetails cached = userDetailsService.getUserCache().get("juan");
+
+        assertThat(authentication.getPrincipal()).isSameAs(cached);
+        assertThat(authentication.getAuthorities()).isSameAs(cached.getAuthorities());
+
+        // Los permisos son además las instancias compartidas con el modo stateless
+        List<GrantedAuthority> shared = GrantedAuthorities.fromNames(List.of(Authorities.USER));
+        assertThat(authentication.getAuthorities()).singleElement().isSameAs(shared.get(0));
+    }
+
+    @Test
+    void loginLookupReturnsACopyOfTheCachedUser() {
+        UserDetails cached = userDetailsService.loadCachedUser("juan");
+
+        // El login recibe una copia: Spring Security borra sus credenciales tras autenticar
+        UserDetails forLogin = userDetailsService.loadUserByUsername("juan");
+        assertThat(forLogin).isNotSameAs(cached);
+        assertThat(userDetailsService.loadCachedUser("juan")).isSameAs(cached);
+    }
+
+    @Test
+    void canBeMarkedUnauthenticatedButNotAuthenticated() {
+        JwtAuthentication authentication = new JwtAuthentication("juan", "juan", List.of());
+
+        assertThatThrownBy(() -> authentication.setAuthenticated(true)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(authentication.isAuthenticated()).isTrue();
+
+        authentication.setAuthenticated(false);
+        assertThat(authentication.isAuthenticated()).isFalse();
+    }
+}
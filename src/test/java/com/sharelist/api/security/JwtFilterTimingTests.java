@@ -0,0 +1,45 @@
+package com.sharelist.api.security;
+
+import com.sharelist.api.support.IntegrationTestSupport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests de los tiempos por etapa del filtro JWT (security.jwt.filter-timing.sample-rate) con todas las
+ * peticiones muestreadas y el log DEBUG del filtro activo.
+ */
+@ExtendWith(OutputCaptureExtension.class)
+@TestPropertySource(properties = {
+        "security.jwt.filter-timing.sample-rate=1.0",
+        "logging.level.com.sharelist.api.security.JwtTokenFilter=DEBUG"
+})
+class JwtFilterTimingTests extends IntegrationTestSupport {
+
+    @Test
+    void sampledRequestLogsStageTimings(CapturedOutput output) throws Exception {
+        saveUser("juan");
+        String token = accessTokenFor("juan");
+
+        mockMvc.perform(get("/api/protected").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        assertThat(output.getOut())
+                .containsPattern("Tiempos del filtro JWT para /api/protected \\(ns\\): "
+                        + "cabecera=\\d+, verificación=\\d+, carga de usuario=\\d+");
+    }
+
+    @Test
+    void requestWithoutTokenLogsNoTimings(CapturedOutput output) throws Exception {
+        mockMvc.perform(get("/api/protected")).andExpect(status().isUnauthorized());
+
+        assertThat(output.getOut()).doesNotContain("Tiempos del filtro JWT");
+    }
+}
@@ -0,0 +1,52 @@
+package com.sharelist.api.security;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests del arranque de JwtKeyRing según el modo de despliegue, sin contexto de Spring.
+ */
+class JwtKeyRingTests {
+
+    @Test
+    void generatedKeysAreAllowedOnSingleInstance() {
+        JwtKeyRing keyRing = keyRing(SignatureAlgorithm.ES256, "local");
+
+        keyRing.init();
+
+        assertThat(keyRing.activeKey()).isNotNull();
+    }
+
+    @Test
+    void clusterWithoutKeystoreFailsAtStartup() {
+        JwtKeyRing keyRing = keyRing(SignatureAlgorithm.ES256, "udp");
+
+        assertThatThrownBy(keyRing::init)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("security.jwt.keystore.location");
+    }
+
+    @Test
+    void clusterWithSharedSecretNeedsNoKeystore() {
+        JwtKeyRing keyRing = keyRing(SignatureAlgorithm.HS256, "udp");
+
+        keyRing.init();
+
+        assertThat(keyRing.isAsymmetric()).isFalse();
+    }
+
+    private static JwtKeyRing keyRing(SignatureAlgorithm algorithm, String clusterMode) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", algorithm);
+        ReflectionTestUtils.setField(keyRing, "clusterMode", clusterMode);
+        ReflectionTestUtils.setField(keyRing, "rotationIntervalInMilliseconds", 86_400_000L);
+        ReflectionTestUtils.setField(keyRing, "gracePeriodInMilliseconds", -1L);
+        ReflectionTestUtils.setField(keyRing, "validityInMilliseconds", 3_600_000L);
+        ReflectionTestUtils.setField(keyRing, "refreshValidityInMilliseconds", 604_800_000L);
+        return keyRing;
+    }
+}
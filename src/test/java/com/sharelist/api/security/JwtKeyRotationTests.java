@@ -0,0 +1,80 @@
+package com.sharelist.api.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sharelist.api.support.IntegrationTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Rotación de claves RS256: un refresh token firmado antes de una rotación debe seguir sirviendo
+ * mientras no expire, aunque haya pasado más tiempo que la vida de un access token.
+ */
+@TestPropertySource(properties = {
+        "security.jwt.algorithm=RS256",
+        "security.jwt.key-rotation-interval=86400000"
+})
+class JwtKeyRotationTests extends IntegrationTestSupport {
+
+    /**
+     * Reloj del anillo de claves, que el test avanza a mano.
+     */
+    @TestConfiguration
+    static class ClockConfiguration {
+
+        @Bean
+        MutableClock keyRingClock() {
+            return new MutableClock(Instant.now());
+        }
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JwtKeyRing keyRing;
+
+    @Autowired
+    private MutableClock clock;
+
+    @BeforeEach
+    void setUp() {
+        saveUser("juan");
+    }
+
+    @Test
+    void refreshTokenSignedBeforeRotationStillRefreshes() throws Exception {
+        String refreshToken = login().get("refreshToken").asText();
+        String signingKid = keyRing.activeKey().kid();
+
+        // Pasa el intervalo de rotación: la siguiente firma usa una clave nueva y la anterior queda retirada
+        clock.advance(Duration.ofHours(25));
+        assertThat(keyRing.activeKey().kid()).isNotEqualTo(signingKid);
+
+        // Mucho más tiempo que un access token (1 hora en los tests), pero menos que un refresh token (7 días)
+        clock.advance(Duration.ofDays(2));
+        mockMvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+                .andExpect(status().isOk());
+    }
+
+    private JsonNode login() throws Exception {
+        String body = login("juan", PASSWORD)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
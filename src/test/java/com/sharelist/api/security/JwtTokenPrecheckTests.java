@@ -0,0 +1,72 @@
+package com.sharelist.api.security;
+
+import com.sharelist.api.metrics.AuthMetrics;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la comprobación previa de tokens, sin contexto de Spring.
+ */
+class JwtTokenPrecheckTests {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final String HS256_HEADER = "{\"alg\":\"HS256\"}";
+    private static final String SIGNATURE = "c2lnbmF0dXJl";
+
+    private JwtTokenPrecheck precheck;
+
+    @BeforeEach
+    void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", SignatureAlgorithm.HS256);
+        precheck = new JwtTokenPrecheck(keyRing, new AuthMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(precheck, "maxTokenLength", 4096);
+        precheck.init();
+    }
+
+    @Test
+    void acceptsWellFormedTokenThatHasNotExpired() {
+        String token = token(HS256_HEADER, "{\"sub\":\"juan\",\"roles\":[{\"exp\":1}],\"exp\":" + (NOW / 1000 + 60) + "}");
+
+        assertThat(precheck.evaluate(token, NOW)).isEqualTo(JwtTokenPrecheck.Result.OK);
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThat(precheck.evaluate("abc", NOW)).isEqualTo(JwtTokenPrecheck.Result.MALFORMED);
+        assertThat(precheck.evaluate("a.b.c.d", NOW)).isEqualTo(JwtTokenPrecheck.Result.MALFORMED);
+        assertThat(precheck.evaluate("eyJh bGc.e30.sig", NOW)).isEqualTo(JwtTokenPrecheck.Result.MALFORMED);
+        assertThat(precheck.evaluate(token(HS256_HEADER, "{}").replace(SIGNATURE, ""), NOW))
+                .isEqualTo(JwtTokenPrecheck.Result.MALFORMED);
+        assertThat(precheck.evaluate("a".repeat(5000), NOW)).isEqualTo(JwtTokenPrecheck.Result.TOO_LONG);
+    }
+
+    @Test
+    void rejectsOtherAlgorithms() {
+        assertThat(precheck.evaluate(token("{\"alg\":\"none\"}", "{}"), NOW))
+                .isEqualTo(JwtTokenPrecheck.Result.UNSUPPORTED_ALGORITHM);
+        assertThat(precheck.evaluate(token("{\"typ\":\"JWT\"}", "{}"), NOW))
+                .isEqualTo(JwtTokenPrecheck.Result.UNSUPPORTED_ALGORITHM);
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        String token = token(HS256_HEADER, "{\"sub\":\"juan\",\"exp\" : " + (NOW / 1000 - 1) + "}");
+
+        assertThat(precheck.evaluate(token, NOW)).isEqualTo(JwtTokenPrecheck.Result.EXPIRED);
+    }
+
+    private static String token(String header, String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + SIGNATURE;
+    }
+}
@@ -0,0 +1,73 @@
+package com.sharelist.api.security;
+
+import com.sharelist.api.metrics.AuthMetrics;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de los resultados de {@link JwtTokenProvider#verify}, sin contexto de Spring: cada resultado
+ * se comprueba también en la métrica auth.token.verification.
+ */
+class JwtTokenProviderTests {
+
+    private static final String SECRET_KEY = "test_secret_key_that_is_long_enough_for_hs256";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JwtTokenProvider provider = provider(SECRET_KEY, 3_600_000L);
+
+    @Test
+    void validTokenReturnsItsClaims() {
+        String token = provider.createToken("juan");
+
+        Optional<Claims> claims = provider.verify(token);
+
+        assertThat(claims).map(Claims::getSubject).contains("juan");
+        assertThat(verifications("valid")).isEqualTo(1);
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = provider(SECRET_KEY, -1_000L).createToken("juan");
+
+        assertThat(provider.verify(token)).isEmpty();
+        assertThat(verifications("expired")).isEqualTo(1);
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        String token = provider("another_secret_key_that_is_long_enough_for_hs256", 3_600_000L).createToken("juan");
+
+        assertThat(provider.verify(token)).isEmpty();
+        assertThat(verifications("bad_signature")).isEqualTo(1);
+    }
+
+    @Test
+    void malformedTokenIsRejected() {
+        assertThat(provider.verify("garbage")).isEmpty();
+        assertThat(provider.verify("")).isEmpty();
+        assertThat(verifications("malformed")).isEqualTo(2);
+    }
+
+    private long verifications(String result) {
+        return registry.get("auth.token.verification").tag("result", result).timer().count();
+    }
+
+    private JwtTokenProvider provider(String secretKey, long validityInMilliseconds) {
+        JwtKeyRing keyRing = new JwtKeyRing();
+        ReflectionTestUtils.setField(keyRing, "algorithm", SignatureAlgorithm.HS256);
+        keyRing.init();
+
+        JwtTokenProvider tokenProvider = new JwtTokenProvider(new AuthMetrics(registry), keyRing);
+        ReflectionTestUtils.setField(tokenProvider, "secretKey", secretKey);
+        ReflectionTestUtils.setField(tokenProvider, "validityInMilliseconds", validityInMilliseconds);
+        tokenProvider.init();
+        return tokenProvider;
+    }
+}
@@ -0,0 +1,181 @@
+package com.sharelist.api.security;
+
+import com.sharelist.api.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests del limitador de intentos de login con un reloj controlado, sin contexto de Spring.
+ */
+class LoginRateLimiterTests {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final MutableClock clock = new MutableClock(START);
+    private final RecordingSharedAuthState sharedAuthState = new RecordingSharedAuthState();
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = limiter(3, 1000, 2, 1000, 100);
+    }
+
+    @Test
+    void allowsBurstThenOneAttemptPerRefillInterval() {
+        for (int i = 0; i < 3; i++) {
+            limiter.acquire("10.0.0.1", null);
+        }
+        assertRetryAfter("10.0.0.1", null, 1);
+
+        clock.advance(Duration.ofMillis(1000));
+        limiter.acquire("10.0.0.1", null);
+        assertRetryAfter("10.0.0.1", null, 1);
+
+        // Las demás IPs tienen su propio bucket
+        assertThatCode(() -> limiter.acquire("10.0.0.2", null)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void retryAfterRoundsRemainingWaitUpToSeconds() {
+        limiter = limiter(1, 3000, 2, 1000, 100);
+        limiter.acquire("10.0.0.1", null);
+        assertRetryAfter("10.0.0.1", null, 3);
+
+        clock.advance(Duration.ofMillis(1500));
+        assertRetryAfter("10.0.0.1", null, 2);
+    }
+
+    @Test
+    void onlyFailedLoginsCountForUsername() {
+        limiter = limiter(100, 1000, 2, 1000, 100);
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire("10.0.0.1", "juan");
+        }
+
+        limiter.recordFailure("10.0.0.1", "juan");
+        limiter.recordFailure("10.0.0.1", "juan");
+        assertRetryAfter("10.0.0.1", "juan", 1);
+
+        // Los fallos de una IP no bloquean al usuario desde otra IP ni a la IP con otro usuario
+        assertThatCode(() -> limiter.acquire("10.0.0.2", "juan")).doesNotThrowAnyException();
+        assertThatCode(() -> limiter.acquire("10.0.0.1", "ana")).doesNotThrowAnyException();
+
+        clock.advance(Duration.ofMillis(1000));
+        assertThatCode(() -> limiter.acquire("10.0.0.1", "juan")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void publishesBlockWhenBucketRunsOut() {
+        limiter.recordFailure("10.0.0.1", "juan");
+        assertThat(sharedAuthState.published).isEmpty();
+
+        limiter.recordFailure("10.0.0.1", "juan");
+        assertThat(sharedAuthState.published).containsExactly(new AuthStateEvent(AuthStateEvent.Type.RATE_LIMITED,
+                "ip-user:10.0.0.1/juan", START.toEpochMilli() + 1000));
+    }
+
+    @Test
+    void appliesBlocksFromOtherNodes() {
+        sharedAuthState.deliver(new AuthStateEvent(AuthStateEvent.Type.RATE_LIMITED, "ip:10.0.0.1",
+                START.toEpochMilli() + 10_000));
+        sharedAuthState.deliver(new AuthStateEvent(AuthStateEvent.Type.RATE_LIMITED, "ip-user:10.0.0.2/juan",
+                START.toEpochMilli() + 5_000));
+        // Bloqueos ya vencidos o de un tipo de clave desconocido se ignoran
+        sharedAuthState.deliver(new AuthStateEvent(AuthStateEvent.Type.RATE_LIMITED, "ip:10.0.0.3",
+                START.toEpochMilli() - 1));
+        sharedAuthState.deliver(new AuthStateEvent(AuthStateEvent.Type.RATE_LIMITED, "otro:10.0.0.4",
+                START.toEpochMilli() + 10_000));
+
+        assertRetryAfter("10.0.0.1", null, 10);
+        assertRetryAfter("10.0.0.2", "juan", 5);
+        assertThatCode(() -> limiter.acquire("10.0.0.3", null)).doesNotThrowAnyException();
+        assertThatCode(() -> limiter.acquire("10.0.0.4", null)).doesNotThrowAnyException();
+
+        clock.advance(Duration.ofSeconds(10));
+        assertThatCode(() -> limiter.acquire("10.0.0.1", "juan")).doesNotThrowAnyException();
+        assertThatCode(() -> limiter.acquire("10.0.0.2", "juan")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void sweepRemovesIdleBuckets() {
+        limiter.acquire("10.0.0.1", null);
+        limiter.acquire("10.0.0.2", null);
+        assertThat(limiter.size()).isEqualTo(2);
+
+        // Pasado el intervalo de barrido, los buckets que ya se han rellenado se eliminan al crear uno nuevo
+        clock.advance(Duration.ofSeconds(61));
+        limiter.acquire("10.0.0.3", null);
+        assertThat(limiter.size()).isEqualTo(1);
+    }
+
+    @Test
+    void sharesOverflowBucketsWhenFull() {
+        limiter = limiter(1, 60_000, 2, 1000, 2);
+        limiter.acquire("10.0.0.1", null);
+        limiter.acquire("10.0.0.2", null);
+
+        // Máximo alcanzado y ningún bucket inactivo: la IP nueva usa un bucket compartido, que también limita
+        limiter.acquire("10.0.0.3", null);
+        assertRetryAfter("10.0.0.3", null, 60);
+        assertThat(limiter.size()).isEqualTo(2);
+    }
+
+    private LoginRateLimiter limiter(int ipCapacity, long ipRefill, int userCapacity, long userRefill, int maxBuckets) {
+        LoginRateLimiter limiter = new LoginRateLimiter(sharedAuthState);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "ipCapacity", ipCapacity);
+        ReflectionTestUtils.setField(limiter, "ipRefillIntervalInMilliseconds", ipRefill);
+        ReflectionTestUtils.setField(limiter, "usernameCapacity", userCapacity);
+        ReflectionTestUtils.setField(limiter, "usernameRefillIntervalInMilliseconds", userRefill);
+        ReflectionTestUtils.setField(limiter, "maxBuckets", maxBuckets);
+        ReflectionTestUtils.setField(limiter, "clock", clock);
+        // El reloj monotónico avanza con el reloj del test
+        LongSupplier nanoTime = () -> TimeUnit.MILLISECONDS.toNanos(clock.millis() - START.toEpochMilli());
+        ReflectionTestUtils.setField(limiter, "nanoTime", nanoTime);
+        limiter.init();
+        return limiter;
+    }
+
+    private void assertRetryAfter(String clientIp, String username, long seconds) {
+        assertThatThrownBy(() -> limiter.acquire(clientIp, username))
+                .isInstanceOf(TooManyRequestsException.class)
+                .extracting("retryAfterSeconds")
+                .isEqualTo(seconds);
+    }
+
+    /**
+     * SharedAuthState que guarda lo publicado y permite entregar eventos como si vinieran de otro nodo.
+     */
+    private static final class RecordingSharedAuthState implements SharedAuthState {
+
+        private final List<AuthStateEvent> published = new ArrayList<>();
+        private final List<Consumer<AuthStateEvent>> listeners = new ArrayList<>();
+
+        @Override
+        public void publish(AuthStateEvent event) {
+            published.add(event);
+        }
+
+        @Override
+        public void subscribe(Consumer<AuthStateEvent> listener) {
+            listeners.add(listener);
+        }
+
+        void deliver(AuthStateEvent event) {
+            listeners.forEach(listener -> listener.accept(event));
+        }
+    }
+}
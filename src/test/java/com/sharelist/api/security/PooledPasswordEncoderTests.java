@@ -0,0 +1,121 @@
+package com.sharelist.api.security;
+
+import com.sharelist.api.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests de PooledPasswordEncoder sin contexto de Spring: sólo el hash pasa por el pool de cifrado.
+ */
+class PooledPasswordEncoderTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicReference<Thread> hashingThread = new AtomicReference<>();
+    private PasswordHashingExecutor executor;
+    private PooledPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        executor = new PasswordHashingExecutor();
+        ReflectionTestUtils.setField(executor, "poolSize", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(executor, "retryAfterSeconds", 2L);
+        executor.init();
+        encoder = new PooledPasswordEncoder(new RecordingEncoder(), executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void matchesRunsOnHashingPoolAndReturnsTheResultToTheCaller() {
+        assertThat(encoder.matches("123456", "{hash}123456")).isTrue();
+        assertThat(encoder.matches("otra", "{hash}123456")).isFalse();
+
+        assertThat(hashingThread.get()).isNotSameAs(Thread.currentThread());
+        assertThat(hashingThread.get().getName()).startsWith("password-hashing-");
+    }
+
+    @Test
+    void virtualThreadCallerWaitsWhileHashRunsOnPlatformPoolThread() throws Exception {
+        AtomicReference<Thread> caller = new AtomicReference<>();
+        AtomicReference<Boolean> matched = new AtomicReference<>();
+
+        // Como una petición atendida con spring.threads.virtual.enabled
+        Thread request = Thread.ofVirtual().start(() -> {
+            caller.set(Thread.currentThread());
+            matched.set(encoder.matches("123456", "{hash}123456"));
+        });
+        assertThat(request.join(Duration.ofSeconds(5))).isTrue();
+
+        assertThat(matched.get()).isTrue();
+        assertThat(caller.get().isVirtual()).isTrue();
+        assertThat(hashingThread.get().isVirtual()).isFalse();
+        assertThat(hashingThread.get().getName()).startsWith("password-hashing-");
+    }
+
+    @Test
+    void encodeFromHashingThreadRunsInline() throws Exception {
+        // Con un único hilo, esperar a otra tarea del pool desde el propio pool no terminaría nunca
+        String encoded = executor.submit(() -> encoder.encode("123456")).get(5, TimeUnit.SECONDS);
+
+        assertThat(encoded).isEqualTo("{hash}123456");
+    }
+
+    @Test
+    void fullPoolRejectsMatchesWithServiceOverloaded() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.submit(() -> {
+            started.countDown();
+            return awaitRelease();
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        executor.submit(this::awaitRelease);
+
+        assertThatThrownBy(() -> encoder.matches("123456", "{hash}123456"))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .extracting("retryAfterSeconds")
+                .isEqualTo(2L);
+    }
+
+    private boolean awaitRelease() {
+        try {
+            return release.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Codificador trivial que anota en qué hilo se calcula cada hash.
+     */
+    private final class RecordingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hashingThread.set(Thread.currentThread());
+            return "{hash}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            hashingThread.set(Thread.currentThread());
+            return encodedPassword.equals("{hash}" + rawPassword);
+        }
+    }
+}
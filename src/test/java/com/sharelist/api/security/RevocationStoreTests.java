@@ -0,0 +1,57 @@
+package com.sharelist.api.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests del almacén de revocaciones con un reloj controlado, sin contexto de Spring.
+ */
+class RevocationStoreTests {
+
+    // Medio segundo pasado un segundo exacto: "iat" de los tokens de ese segundo es NOW_SECONDS
+    private static final long NOW = 1_700_000_010_500L;
+    private static final long NOW_SECONDS = NOW / 1000;
+
+    private RevocationStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RevocationStore(new LocalSharedAuthState());
+        ReflectionTestUtils.setField(store, "clock", new MutableClock(Instant.ofEpochMilli(NOW)));
+        ReflectionTestUtils.setField(store, "maxTokenLifetimeInMilliseconds", 604_800_000L);
+    }
+
+    @Test
+    void revokingUserRejectsTokensIssuedEarlierInTheSameSecond() {
+        store.revokeAllForUser("juan");
+
+        assertThat(store.isRevoked(claims("juan", NOW_SECONDS - 1))).isTrue();
+        assertThat(store.isRevoked(claims("juan", NOW_SECONDS))).isTrue();
+        assertThat(store.isRevoked(claims("juan", NOW_SECONDS + 1))).isFalse();
+        assertThat(store.isRevoked(claims("ana", NOW_SECONDS - 1))).isFalse();
+    }
+
+    @Test
+    void tokenCanOnlyBeRevokedOnce() {
+        assertThat(store.revoke("jti-1", NOW + 60_000)).isTrue();
+        assertThat(store.revoke("jti-1", NOW + 60_000)).isFalse();
+
+        Claims revoked = claims("juan", NOW_SECONDS);
+        revoked.setId("jti-1");
+        assertThat(store.isRevoked(revoked)).isTrue();
+    }
+
+    private static Claims claims(String username, long issuedAtSeconds) {
+        return Jwts.claims()
+                .setSubject(username)
+                .setIssuedAt(new Date(issuedAtSeconds * 1000));
+    }
+}
@@ -0,0 +1,34 @@
+package com.sharelist.api.security;
+
+import com.sharelist.api.support.IntegrationTestSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la autenticación que crea JwtTokenFilter en modo stateless, sólo con los claims del token.
+ */
+@TestPropertySource(properties = "security.jwt.stateless=true")
+class StatelessJwtAuthenticationTests extends IntegrationTestSupport {
+
+    @BeforeEach
+    void setUp() {
+        saveUser("juan");
+    }
+
+    @Test
+    void claimsPrincipalUsesSharedAuthorities() throws Exception {
+        List<GrantedAuthority> shared = GrantedAuthorities.fromNames(List.of(Authorities.USER));
+
+        Authentication authentication = authenticateThroughFilter(accessTokenFor("juan"));
+
+        assertThat(authentication.getPrincipal()).isEqualTo("juan");
+        assertThat(authentication.getAuthorities()).isSameAs(shared);
+    }
+}
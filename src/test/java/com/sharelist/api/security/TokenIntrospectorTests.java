@@ -0,0 +1,72 @@
+package com.sharelist.api.security;
+
+import com.sharelist.api.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests del reparto de lotes de TokenIntrospector cuando su pool está saturado, sin contexto de Spring.
+ */
+class TokenIntrospectorTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private TokenIntrospector introspector;
+    private ThreadPoolExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        // Sin dependencias: en estos tests ningún token llega a verificarse
+        introspector = new TokenIntrospector(null, null, null, null);
+        ReflectionTestUtils.setField(introspector, "poolSize", 2);
+        ReflectionTestUtils.setField(introspector, "queueCapacity", 1);
+        ReflectionTestUtils.setField(introspector, "retryAfterSeconds", 3L);
+        introspector.init();
+        executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(introspector, "executor");
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        introspector.shutdown();
+    }
+
+    @Test
+    void rejectedBatchWithdrawsChunksAlreadyQueued() {
+        // Los dos hilos del pool quedan ocupados: el primer bloque entra en la cola y el segundo se rechaza
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+
+        assertThatThrownBy(() -> introspector.introspect(Collections.nCopies(64, "token")))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .extracting("retryAfterSeconds")
+                .isEqualTo(3L);
+        assertThat(executor.getQueue()).isEmpty();
+    }
+
+    @Test
+    void smallBatchIsCheckedOnCallingThread() {
+        executor.execute(this::awaitRelease);
+        executor.execute(this::awaitRelease);
+
+        // Con el pool saturado, un lote pequeño no se reparte y no se rechaza
+        assertThat(introspector.introspect(List.of())).isCompletedWithValue(List.of());
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
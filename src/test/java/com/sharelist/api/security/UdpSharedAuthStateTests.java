@@ -0,0 +1,63 @@
+package com.sharelist.api.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de la difusión por UDP: dos nodos en loopback, sin ningún servicio externo.
+ */
+class UdpSharedAuthStateTests {
+
+    private final List<UdpSharedAuthState> nodes = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(UdpSharedAuthState::shutdown);
+    }
+
+    @Test
+    void deliversSignedEventsToPeers() throws Exception {
+        UdpSharedAuthState receiver = node("cluster-secret", List.of());
+        BlockingQueue<AuthStateEvent> received = new LinkedBlockingQueue<>();
+        receiver.subscribe(received::add);
+
+        UdpSharedAuthState sender = node("cluster-secret", List.of("127.0.0.1:" + receiver.getLocalPort()));
+        AuthStateEvent event = new AuthStateEvent(AuthStateEvent.Type.TOKEN_REVOKED, "jti-1", 1234L);
+        sender.publish(event);
+
+        assertThat(received.poll(5, TimeUnit.SECONDS)).isEqualTo(event);
+    }
+
+    @Test
+    void ignoresEventsSignedWithAnotherSecret() throws Exception {
+        UdpSharedAuthState receiver = node("cluster-secret", List.of());
+        BlockingQueue<AuthStateEvent> received = new LinkedBlockingQueue<>();
+        receiver.subscribe(received::add);
+
+        UdpSharedAuthState intruder = node("other-secret", List.of("127.0.0.1:" + receiver.getLocalPort()));
+        intruder.publish(new AuthStateEvent(AuthStateEvent.Type.USER_INVALIDATED, "juan", 0));
+
+        assertThat(received.poll(500, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    private UdpSharedAuthState node(String secret, List<String> peers) throws Exception {
+        UdpSharedAuthState node = new UdpSharedAuthState();
+        ReflectionTestUtils.setField(node, "bindAddress", "127.0.0.1");
+        ReflectionTestUtils.setField(node, "port", 0);
+        ReflectionTestUtils.setField(node, "peers", peers);
+        ReflectionTestUtils.setField(node, "secret", secret);
+        ReflectionTestUtils.setField(node, "maxMessageAgeInMilliseconds", 30_000L);
+        node.init();
+        nodes.add(node);
+        return node;
+    }
+}
@@ -0,0 +1,67 @@
+package com.sharelist.api.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests de VerifiedTokenCache con un reloj controlado, sin contexto de Spring.
+ */
+class VerifiedTokenCacheTests {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final MutableClock clock = new MutableClock(Instant.ofEpochMilli(NOW));
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        ReflectionTestUtils.setField(cache, "clock", clock);
+        cache.init();
+    }
+
+    @Test
+    void tokenIsServedUntilItsExpiration() {
+        Claims claims = claimsExpiringAt(NOW + 60_000);
+        cache.put("token", claims);
+
+        clock.advance(Duration.ofSeconds(59));
+        assertThat(cache.get("token")).isSameAs(claims);
+
+        // A partir de su exp el token no se sirve de la caché: hay que verificarlo (y será rechazado)
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.getCache().evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void tokenWithoutExpirationIsNotCached() {
+        cache.put("token", Jwts.claims().setSubject("juan"));
+
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.getCache().size()).isZero();
+    }
+
+    @Test
+    void disabledCacheNeverServesTokens() {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+        cache.put("token", claimsExpiringAt(NOW + 60_000));
+
+        assertThat(cache.get("token")).isNull();
+    }
+
+    private static Claims claimsExpiringAt(long expiresAt) {
+        return Jwts.claims().setSubject("juan").setExpiration(new Date(expiresAt));
+    }
+}
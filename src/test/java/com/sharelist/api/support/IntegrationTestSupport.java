@@ -0,0 +1,133 @@
+package com.sharelist.api.support;
+
+import com.sharelist.api.model.User;
+import com.sharelist.api.repository.UserRepository;
+import com.sharelist.api.security.CustomUserDetailsService;
+import com.sharelist.api.security.JwtTokenFilter;
+import com.sharelist.api.security.JwtTokenProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Base de los tests de integración: contexto completo con MockMvc, la tabla de usuarios y la caché de
+ * usuarios vacías antes de cada test, y las ayudas comunes (alta de usuarios, tokens, login).
+ *
+ * Las clases que necesitan otra configuración la declaran con {@code @TestPropertySource}, nunca cambiando
+ * los campos de los beans; las que no, comparten un único contexto.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public abstract class IntegrationTestSupport {
+
+    // Contraseña de todos los usuarios de prueba
+    protected static final String PASSWORD = "123456";
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected PasswordEncoder passwordEncoder;
+
+    @Autowired
+    protected JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    protected CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    protected JwtTokenFilter jwtTokenFilter;
+
+    @BeforeEach
+    void resetUsers() {
+        userRepository.deleteAll();
+        userDetailsService.getUserCache().clear();
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Da de alta un usuario habilitado con la contraseña {@link #PASSWORD} y el correo username@example.com.
+     */
+    protected void saveUser(String username) {
+        saveUser(username, username + "@example.com");
+    }
+
+    protected void saveUser(String username, String email) {
+        userRepository.save(User.builder()
+                .username(username)
+                .password(passwordEncoder.encode(PASSWORD))
+                .email(email)
+                .fullName("Usuario " + username)
+                .enabled(true)
+                .build());
+    }
+
+    /**
+     * Access token para un usuario ya guardado, con sus permisos actuales.
+     */
+    protected String accessTokenFor(String username) {
+        return jwtTokenProvider.createToken(userDetailsService.loadUserByUsername(username));
+    }
+
+    protected static MockHttpServletRequestBuilder loginRequest(String username, String password) {
+        return post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}");
+    }
+
+    protected ResultActions login(String username, String password) throws Exception {
+        return performToCompletion(loginRequest(username, password));
+    }
+
+    /**
+     * Lanza una petición y, si el controlador responde de forma asíncrona, espera a que termine.
+     */
+    protected ResultActions performToCompletion(RequestBuilder builder) throws Exception {
+        ResultActions actions = mockMvc.perform(builder);
+        MvcResult result = actions.andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            return mockMvc.perform(asyncDispatch(result));
+        }
+        return actions;
+    }
+
+    /**
+     * Pasa una petición a /api/protected por el filtro JWT y devuelve la autenticación que deja en el contexto.
+     */
+    protected Authentication authenticateThroughFilter(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/protected");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        AtomicReference<Authentication> authentication = new AtomicReference<>();
+
+        jwtTokenFilter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> authentication.set(SecurityContextHolder.getContext().getAuthentication()));
+        SecurityContextHolder.clearContext();
+        return authentication.get();
+    }
+}